@@ -0,0 +1,107 @@
+package com.beerstock.benchmarks;
+
+import com.beerstock.dtos.BeerSuggestionDTO;
+import com.beerstock.services.BeerNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplete latency over a large catalog. Sampling mode reports the percentiles, p99 included,
+ * and setup prints roughly how much heap the rebuilt index takes.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AutocompleteBenchmark {
+    private static final String INSERT_SQL = "insert into beer (name, brand, quantity, max, type, version, shards, reserved, located, allotted) values (?, ?, 10, 100, 'LAGER', 0, 1, 0, 0, 0)";
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final int QUERIES = 1024;
+
+    @Param({"1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private BeerNameIndex nameIndex;
+    private String[] prefixes;
+    private String[] typos;
+
+    @Setup
+    public void setUp() {
+        context = BeerStockContext.start();
+        nameIndex = context.getBean(BeerNameIndex.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{"Beer " + i, "Brand " + i % 1000});
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+
+        long usedBefore = usedHeap();
+        nameIndex.rebuild();
+        System.out.printf("Index of %d beers takes about %d MB%n", rows, (usedHeap() - usedBefore) >> 20);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        prefixes = new String[QUERIES];
+        typos = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String number = String.valueOf(random.nextInt(rows));
+            prefixes[i] = "beer " + number.substring(0, Math.max(1, number.length() - 2));
+            typos[i] = "bere " + number;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<BeerSuggestionDTO> prefix() {
+        return nameIndex.suggest(prefixes[ThreadLocalRandom.current().nextInt(QUERIES)], 10);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<BeerSuggestionDTO> typo() {
+        return nameIndex.suggest(typos[ThreadLocalRandom.current().nextInt(QUERIES)], 10);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<BeerSuggestionDTO> shortPrefix() {
+        return nameIndex.suggest("br", 10);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
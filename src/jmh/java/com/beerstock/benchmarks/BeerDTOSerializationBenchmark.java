@@ -0,0 +1,110 @@
+package com.beerstock.benchmarks;
+
+import com.beerstock.config.BinaryFormatConfig;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.enums.BeerType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes one beer and a whole catalog as JSON and as Smile. Setup prints the payload
+ * sizes of both formats.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class BeerDTOSerializationBenchmark {
+    private static final int CATALOG_SIZE = 1000;
+    private static final BeerType[] TYPES = BeerType.values();
+
+    @Param({"json", "smile"})
+    private String format;
+
+    private final BeerDTO beerDTO = BeerDTO.builder()
+            .id(1L)
+            .name("Brahma")
+            .brand("Ambev")
+            .max(50)
+            .quantity(10)
+            .type(BeerType.LAGER)
+            .build();
+    private final List<BeerDTO> catalog = new ArrayList<>(CATALOG_SIZE);
+
+    private ObjectWriter beerWriter;
+    private ObjectReader beerReader;
+    private ObjectWriter catalogWriter;
+    private ObjectReader catalogReader;
+    private byte[] encodedBeer;
+    private byte[] encodedCatalog;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = format.equals("smile")
+                ? BinaryFormatConfig.smileObjectMapper(new Jackson2ObjectMapperBuilder())
+                : new Jackson2ObjectMapperBuilder().build();
+        beerWriter = objectMapper.writerFor(BeerDTO.class);
+        beerReader = objectMapper.readerFor(BeerDTO.class);
+        TypeReference<List<BeerDTO>> catalogType = new TypeReference<>() {
+        };
+        catalogWriter = objectMapper.writerFor(catalogType);
+        catalogReader = objectMapper.readerFor(catalogType);
+
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            catalog.add(BeerDTO.builder()
+                    .id((long) i)
+                    .name("Beer " + i)
+                    .brand("Brand " + i % 20)
+                    .max(100)
+                    .quantity(i % 100)
+                    .type(TYPES[i % TYPES.length])
+                    .version(0L)
+                    .build());
+        }
+        encodedBeer = beerWriter.writeValueAsBytes(beerDTO);
+        encodedCatalog = catalogWriter.writeValueAsBytes(catalog);
+        System.out.printf("%s: %d bytes per beer, %d bytes per catalog of %d%n", format, encodedBeer.length, encodedCatalog.length, CATALOG_SIZE);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return beerWriter.writeValueAsBytes(beerDTO);
+    }
+
+    @Benchmark
+    public BeerDTO deserialize() throws IOException {
+        return beerReader.readValue(encodedBeer);
+    }
+
+    @Benchmark
+    public byte[] serializeCatalog() throws JsonProcessingException {
+        return catalogWriter.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public List<BeerDTO> deserializeCatalog() throws IOException {
+        return catalogReader.readValue(encodedCatalog);
+    }
+}
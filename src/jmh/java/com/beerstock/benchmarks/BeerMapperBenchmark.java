@@ -0,0 +1,39 @@
+package com.beerstock.benchmarks;
+
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.entities.Beer;
+import com.beerstock.enums.BeerType;
+import com.beerstock.mappers.BeerMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class BeerMapperBenchmark {
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final Beer beer = new Beer(1L, "Brahma", "Ambev", 10, 50, BeerType.LAGER, 0L, 1, null, 0);
+    private final BeerDTO beerDTO = beerMapper.toDTO(beer);
+
+    @Benchmark
+    public BeerDTO toDTO() {
+        return beerMapper.toDTO(beer);
+    }
+
+    @Benchmark
+    public Beer toModel() {
+        return beerMapper.toModel(beerDTO);
+    }
+}
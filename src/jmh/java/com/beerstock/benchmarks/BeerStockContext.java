@@ -0,0 +1,20 @@
+package com.beerstock.benchmarks;
+
+import com.beerstock.BeerStockApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application on a random port with its own H2 in-memory database, for the benchmarks
+ * that go through the service layer.
+ */
+final class BeerStockContext {
+    private BeerStockContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return SpringApplication.run(BeerStockApplication.class,
+                "--server.port=0",
+                "--logging.level.root=WARN");
+    }
+}
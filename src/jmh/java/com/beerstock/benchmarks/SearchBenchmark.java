@@ -0,0 +1,103 @@
+package com.beerstock.benchmarks;
+
+import com.beerstock.dtos.BeerPageDTO;
+import com.beerstock.dtos.BeerSearchDTO;
+import com.beerstock.enums.BeerType;
+import com.beerstock.services.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches a large catalog through the criteria queries. Setup fails when H2 does not plan the
+ * searched shapes on the indexes declared on {@code Beer}, so a run also proves the index use.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+    private static final String INSERT_SQL = "insert into beer (name, brand, quantity, max, type, version, shards, reserved, located, allotted) values (?, ?, ?, ?, ?, 0, 1, 0, 0, 0)";
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final BeerType[] TYPES = BeerType.values();
+
+    @Param({"1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+
+    @Setup
+    public void setUp() {
+        context = BeerStockContext.start();
+        beerService = context.getBean(BeerService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{"Beer " + i, "Brand " + i % 1000, i % 100, 100, TYPES[i % TYPES.length].name()});
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        jdbcTemplate.execute("analyze");
+
+        verifyIndex(jdbcTemplate, "select * from beer where brand = 'Brand 7' and type = 'IPA' and shards = 1 and quantity <= 10 order by id limit 101",
+                "IDX_BEER_BRAND_TYPE_QUANTITY");
+        verifyIndex(jdbcTemplate, "select * from beer where type = 'IPA' and shards = 1 and quantity between 10 and 12 order by id limit 101",
+                "IDX_BEER_TYPE_QUANTITY");
+        verifyIndex(jdbcTemplate, "select * from beer where name like 'Beer 12345%' escape '\\' order by id limit 101",
+                "UK_");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerPageDTO brandTypeAndQuantity() {
+        return beerService.search(BeerSearchDTO.builder().brand("Brand 7").type(BeerType.IPA).maxQuantity(10).build());
+    }
+
+    @Benchmark
+    public BeerPageDTO typeAndQuantityRange() {
+        return beerService.search(BeerSearchDTO.builder().type(BeerType.IPA).minQuantity(10).maxQuantity(12).build());
+    }
+
+    @Benchmark
+    public BeerPageDTO namePrefix() {
+        return beerService.search(BeerSearchDTO.builder().name("Beer 12345").build());
+    }
+
+    /**
+     * Checks the plan scans the given index, {@code UK_} standing for the unique index Hibernate
+     * generates for {@code Beer.name}.
+     */
+    private void verifyIndex(JdbcTemplate jdbcTemplate, String sql, String index) {
+        String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+        if (plan == null || !plan.toUpperCase().contains(index) || plan.contains("tableScan")) {
+            throw new IllegalStateException(String.format("Expected %s to use %s, plan was:%n%s", sql, index, plan));
+        }
+        System.out.printf("%s%n%s%n", sql, plan);
+    }
+}
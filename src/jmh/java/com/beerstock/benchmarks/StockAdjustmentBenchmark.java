@@ -0,0 +1,86 @@
+package com.beerstock.benchmarks;
+
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.enums.BeerType;
+import com.beerstock.exceptions.BeerNegativeQuantityException;
+import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.exceptions.BeerStockExceededException;
+import com.beerstock.services.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Increments and decrements a single beer from several threads at once, so every operation
+ * contends on the same row, or on the same few shard rows when {@code shards} is above one.
+ * Operations rejected by the bounds still count, as they cost the same round trip.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Group)
+public class StockAdjustmentBenchmark {
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private Long id;
+
+    @Param({"1", "8"})
+    private int shards;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = BeerStockContext.start();
+        beerService = context.getBean(BeerService.class);
+        id = beerService.create(BeerDTO.builder()
+                .name("Brahma")
+                .brand("Ambev")
+                .max(500)
+                .quantity(250)
+                .type(BeerType.LAGER)
+                .build()).getId();
+        if (shards > 1) beerService.shard(id, shards);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(4)
+    public BeerDTO increment() throws BeerNotFoundException {
+        try {
+            return beerService.increment(id, 1);
+        } catch (BeerStockExceededException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(4)
+    public BeerDTO decrement() throws BeerNotFoundException {
+        try {
+            return beerService.decrement(id, 1);
+        } catch (BeerNegativeQuantityException e) {
+            return null;
+        }
+    }
+}
@@ -25,11 +25,13 @@ public class BeerDTOBuilder {
     private BeerType type = BeerType.LAGER;
 
     public BeerDTO toBeerDTO() {
-        return new BeerDTO(id,
-                name,
-                brand,
-                max,
-                quantity,
-                type);
+        return BeerDTO.builder()
+                .id(id)
+                .name(name)
+                .brand(brand)
+                .max(max)
+                .quantity(quantity)
+                .type(type)
+                .build();
     }
 }
@@ -0,0 +1,12 @@
+package com.beerstock.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String BEERS_BY_NAME = "beersByName";
+    public static final String BEERS_BY_ID = "beersById";
+    public static final String WAREHOUSES_BY_CODE = "warehousesByCode";
+}
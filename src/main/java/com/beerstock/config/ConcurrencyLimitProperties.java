@@ -0,0 +1,62 @@
+package com.beerstock.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("beerstock.limits")
+public class ConcurrencyLimitProperties {
+    /**
+     * Sheds beer requests beyond adaptive concurrency limits with 429 instead of queueing them.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Delay sent in the Retry-After header of shed requests, rounded up to whole seconds.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Budget of the read requests.
+     */
+    private Budget reads = new Budget(100, 10, 1000, Duration.ofMillis(100), 0.9);
+
+    /**
+     * Budget of the requests changing beers or their stock.
+     */
+    private Budget mutations = new Budget(20, 2, 200, Duration.ofMillis(250), 0.9);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Budget {
+        /**
+         * Concurrent requests allowed before any latency is observed.
+         */
+        private int initialLimit;
+
+        /**
+         * Floor the limit never goes below, however slow the requests get.
+         */
+        private int minLimit;
+
+        /**
+         * Ceiling the limit never goes above, however fast the requests get.
+         */
+        private int maxLimit;
+
+        /**
+         * Requests slower than this cut the limit, faster ones raise it.
+         */
+        private Duration latencyThreshold;
+
+        /**
+         * Ratio the limit is multiplied by when a request exceeds the latency threshold.
+         */
+        private double backoffRatio;
+    }
+}
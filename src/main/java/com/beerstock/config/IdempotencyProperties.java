@@ -0,0 +1,30 @@
+package com.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("beerstock.idempotency")
+public class IdempotencyProperties {
+    /**
+     * How long the response to an idempotency key is replayed.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Responses kept in memory.
+     */
+    private long maxEntries = 100_000;
+
+    /**
+     * Whether responses are also stored in the database, surviving restarts and evictions.
+     */
+    private boolean persistent = false;
+
+    /**
+     * Interval between two deletions of expired stored responses.
+     */
+    private Duration purgeInterval = Duration.ofMinutes(10);
+}
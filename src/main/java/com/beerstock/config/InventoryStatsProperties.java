@@ -0,0 +1,15 @@
+package com.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("beerstock.stats")
+public class InventoryStatsProperties {
+    /**
+     * Interval between two comparisons of the maintained statistics with the beer table.
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,39 @@
+package com.beerstock.config;
+
+import com.beerstock.controllers.OffloadingHandlerAdapter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "beerstock.async.enabled", havingValue = "true")
+public class RequestExecutionConfig {
+    public static final String BEER_REQUEST_EXECUTOR = "beerRequestExecutor";
+
+    @Bean(BEER_REQUEST_EXECUTOR)
+    public ThreadPoolTaskExecutor beerRequestExecutor(RequestExecutionProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("beer-request-");
+        return executor;
+    }
+
+    @Bean
+    public WebMvcRegistrations offloadingRegistrations(@Qualifier(BEER_REQUEST_EXECUTOR) TaskExecutor executor) {
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                return new OffloadingHandlerAdapter(executor);
+            }
+        };
+    }
+}
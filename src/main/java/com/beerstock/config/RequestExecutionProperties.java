@@ -0,0 +1,24 @@
+package com.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("beerstock.async")
+public class RequestExecutionProperties {
+    /**
+     * Runs the blocking beer endpoints on a bounded executor, releasing the request thread while
+     * they wait on the database.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Number of threads running the blocking endpoints.
+     */
+    private int poolSize = 64;
+
+    /**
+     * Requests waiting for a free thread before new ones are answered with 503.
+     */
+    private int queueCapacity = 2000;
+}
@@ -0,0 +1,31 @@
+package com.beerstock.config;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+/**
+ * Tomcat settings of the {@code prod} profile that have no Spring Boot property: HTTP/2
+ * connections have their own keep-alive timeout.
+ */
+@Configuration
+@Profile("prod")
+public class ServingConfig {
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> servingCustomizer(ServerProperties serverProperties) {
+        Duration keepAliveTimeout = serverProperties.getTomcat().getKeepAliveTimeout();
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol upgradeProtocol : connector.findUpgradeProtocols()) {
+                if (!(upgradeProtocol instanceof Http2Protocol)) continue;
+                if (keepAliveTimeout != null) ((Http2Protocol) upgradeProtocol).setKeepAliveTimeout(keepAliveTimeout.toMillis());
+            }
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("beerstock.alerts")
+public class StockAlertProperties {
+    /**
+     * Window over which the consumption rate of each beer is measured.
+     */
+    private Duration window = Duration.ofHours(1);
+
+    /**
+     * Number of buckets the window slides by.
+     */
+    private int buckets = 60;
+
+    /**
+     * Raises a depletion alert when a beer is projected to run out sooner than this.
+     */
+    private Duration depletionHorizon = Duration.ofHours(24);
+
+    /**
+     * URL receiving every alert as a JSON POST, when set.
+     */
+    private String webhookUrl;
+}
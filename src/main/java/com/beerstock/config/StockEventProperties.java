@@ -0,0 +1,30 @@
+package com.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("beerstock.events")
+public class StockEventProperties {
+    /**
+     * Latest events kept to resume a stream from its {@code Last-Event-ID}.
+     */
+    private int historySize = 1000;
+
+    /**
+     * Events a single subscriber may fall behind before it is dropped as a slow consumer.
+     */
+    private int bufferSize = 256;
+
+    /**
+     * Longest a single write may block before its subscriber is disconnected.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Time after which a stream is closed, letting the client reconnect.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
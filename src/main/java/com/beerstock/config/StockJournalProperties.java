@@ -0,0 +1,31 @@
+package com.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("beerstock.journal")
+public class StockJournalProperties {
+    /**
+     * Interval between two batched writes of the recorded stock movements.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Interval between two quantity snapshots, which bounds how many movements a point-in-time
+     * query replays.
+     */
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+
+    /**
+     * Age after which movements already covered by a snapshot are archived.
+     */
+    private Duration retention = Duration.ofDays(30);
+
+    /**
+     * Interval between two compactions of the journal.
+     */
+    private Duration compactionInterval = Duration.ofHours(1);
+}
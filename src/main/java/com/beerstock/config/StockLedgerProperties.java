@@ -0,0 +1,30 @@
+package com.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("beerstock.ledger")
+public class StockLedgerProperties {
+    /**
+     * Keeps stock quantities in memory and writes them behind to the database.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Interval between two flushes of the coalesced deltas to the database.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Directory holding the append log segments of the unflushed deltas.
+     */
+    private String directory = "ledger";
+
+    /**
+     * Forces every appended delta to disk before the adjustment is acknowledged.
+     */
+    private boolean syncOnAppend = true;
+}
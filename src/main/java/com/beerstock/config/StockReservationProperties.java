@@ -0,0 +1,30 @@
+package com.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("beerstock.reservations")
+public class StockReservationProperties {
+    /**
+     * How long a reservation holds its units when the request does not say.
+     */
+    private Duration defaultTtl = Duration.ofMinutes(5);
+
+    /**
+     * Longest hold a request may ask for.
+     */
+    private Duration maxTtl = Duration.ofHours(1);
+
+    /**
+     * Expiry resolution: reservations are released on the first tick after they expire.
+     */
+    private Duration tick = Duration.ofSeconds(1);
+
+    /**
+     * Number of ticks in one turn of the expiry wheel.
+     */
+    private int wheelSize = 4096;
+}
@@ -2,6 +2,7 @@ package com.beerstock.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurationSupport;
 import springfox.documentation.builders.ApiInfoBuilder;
 import springfox.documentation.builders.PathSelectors;
@@ -14,6 +15,7 @@ import springfox.documentation.spring.web.plugins.Docket;
 import static springfox.documentation.builders.RequestHandlerSelectors.*;
 
 @Configuration
+@Profile("!reactive")
 @EnableOpenApi
 public class SwaggerConfig extends WebMvcConfigurationSupport {
     private static final String BASE_PACKAGE = "com.beerstock.controllers";
@@ -0,0 +1,15 @@
+package com.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("beerstock.warehouses")
+public class WarehouseProperties {
+    /**
+     * Interval between two roll-ups of the warehouse deltas into the beer rows.
+     */
+    private Duration rollupInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,48 @@
+package com.beerstock.controllers;
+
+import com.beerstock.config.ConcurrencyLimitProperties;
+import com.beerstock.dtos.ConcurrencyLimitDTO;
+
+/**
+ * Concurrency limit adjusted by additive increase and multiplicative decrease on the observed
+ * latency.
+ */
+public class AdaptiveConcurrencyLimit {
+    private final ConcurrencyLimitProperties.Budget budget;
+    private double limit;
+    private int inFlight;
+    private long rejected;
+    private boolean backedOff;
+    private long lastBackoffNanos;
+
+    public AdaptiveConcurrencyLimit(ConcurrencyLimitProperties.Budget budget) {
+        this.budget = budget;
+        this.limit = Math.max(budget.getMinLimit(), Math.min(budget.getInitialLimit(), budget.getMaxLimit()));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected++;
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void release(long startNanos, long endNanos) {
+        if (endNanos - startNanos > budget.getLatencyThreshold().toNanos()) {
+            if (!backedOff || startNanos - lastBackoffNanos >= 0) {
+                limit = Math.max(budget.getMinLimit(), limit * budget.getBackoffRatio());
+                backedOff = true;
+                lastBackoffNanos = endNanos;
+            }
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(budget.getMaxLimit(), limit + 1 / limit);
+        }
+        inFlight--;
+    }
+
+    public synchronized ConcurrencyLimitDTO snapshot() {
+        return new ConcurrencyLimitDTO((int) limit, inFlight, rejected);
+    }
+}
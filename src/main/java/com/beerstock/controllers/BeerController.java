@@ -1,25 +1,83 @@
 package com.beerstock.controllers;
 
 import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.BeerPageDTO;
+import com.beerstock.dtos.BeerSearchDTO;
+import com.beerstock.dtos.BeerSuggestionDTO;
+import com.beerstock.dtos.ImportReportDTO;
+import com.beerstock.dtos.InventoryStatsDTO;
 import com.beerstock.dtos.QuantityDTO;
+import com.beerstock.dtos.ReorderPointDTO;
+import com.beerstock.dtos.ReservationDTO;
+import com.beerstock.dtos.ReservationRequestDTO;
+import com.beerstock.dtos.ShardCountDTO;
+import com.beerstock.dtos.StockAdjustmentDTO;
+import com.beerstock.dtos.StockLevelDTO;
+import com.beerstock.dtos.StockOperationResultDTO;
 import com.beerstock.exceptions.BeerAlreadyRegisteredException;
 import com.beerstock.exceptions.BeerNegativeQuantityException;
 import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.exceptions.BeerReservationNotSupportedException;
+import com.beerstock.exceptions.BeerShardingNotSupportedException;
 import com.beerstock.exceptions.BeerStockExceededException;
+import com.beerstock.exceptions.BeerStockUnavailableException;
+import com.beerstock.exceptions.ReservationNotFoundException;
+import com.beerstock.services.BeerCatalogImporter;
+import com.beerstock.services.BeerCsv;
 import com.beerstock.services.BeerService;
-import lombok.AllArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.beerstock.services.StockAdjustmentService;
+import com.beerstock.services.StockEventBroadcaster;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
+@Offloaded
 @RestController
+@Profile("!reactive")
 @RequestMapping("api/v1/beers")
-@AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerController implements BeerControllerDocs {
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final MediaType TEXT_CSV = MediaType.valueOf(TEXT_CSV_VALUE);
+
     private final BeerService beerService;
+    private final StockAdjustmentService stockAdjustmentService;
+    private final StockEventBroadcaster stockEvents;
+    private final BeerCatalogImporter catalogImporter;
+    private final ObjectWriter beerWriter;
+
+    public BeerController(BeerService beerService, StockAdjustmentService stockAdjustmentService, StockEventBroadcaster stockEvents,
+                          BeerCatalogImporter catalogImporter, ObjectMapper objectMapper) {
+        this.beerService = beerService;
+        this.stockAdjustmentService = stockAdjustmentService;
+        this.stockEvents = stockEvents;
+        this.catalogImporter = catalogImporter;
+        this.beerWriter = objectMapper.writerFor(BeerDTO.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -28,13 +86,81 @@ public class BeerController implements BeerControllerDocs {
     }
 
     @GetMapping("/{name}")
-    public BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException {
-        return beerService.findByName(name);
+    public ResponseEntity<BeerDTO> findByName(@PathVariable String name, WebRequest request) throws BeerNotFoundException {
+        BeerDTO beerDTO = beerService.findByName(name);
+        String eTag = eTagOf(beerDTO);
+        if (request.checkNotModified(eTag)) return null;
+        return ResponseEntity.ok().eTag(eTag).body(beerDTO);
+    }
+
+    @NonBlocking
+    @GetMapping(value = "/stock/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stockEvents(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return stockEvents.subscribe(lastEventId);
+    }
+
+    @GetMapping("/{id}/stock")
+    public StockLevelDTO stockAt(@PathVariable Long id, @RequestParam(required = false) Instant at) throws BeerNotFoundException {
+        return beerService.stockAt(id, at == null ? Instant.now() : at);
     }
 
     @GetMapping
-    public List<BeerDTO> listAll() {
-        return beerService.listAll();
+    public ResponseEntity<List<BeerDTO>> listAll(WebRequest request) {
+        String eTag = catalogETagOf(beerService.catalogVersion());
+        if (request.checkNotModified(eTag)) return null;
+        return ResponseEntity.ok().eTag(eTag).body(beerService.listAll());
+    }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<List<BeerDTO>> listPage(@RequestParam(required = false) Long after, @RequestParam int size, WebRequest request) {
+        String eTag = catalogETagOf(beerService.catalogVersion());
+        if (request.checkNotModified(eTag)) return null;
+
+        BeerPageDTO page = beerService.listPage(after, size);
+        return pageResponse(page, eTag, ServletUriComponentsBuilder.fromCurrentRequest());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<BeerDTO>> search(@Valid BeerSearchDTO search, WebRequest request) {
+        String eTag = catalogETagOf(beerService.catalogVersion());
+        if (request.checkNotModified(eTag)) return null;
+
+        return pageResponse(beerService.search(search), eTag, ServletUriComponentsBuilder.fromCurrentRequest());
+    }
+
+    @NonBlocking
+    @GetMapping("/stats")
+    public InventoryStatsDTO statistics() {
+        return beerService.statistics();
+    }
+
+    @NonBlocking
+    @GetMapping("/autocomplete")
+    public List<BeerSuggestionDTO> suggest(@RequestParam("q") String query, @RequestParam(defaultValue = "10") int limit) {
+        return beerService.suggest(query, limit);
+    }
+
+    @NonBlocking
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        StreamingResponseBody body = outputStream -> beerService.streamAll(beerDTO -> writeLine(outputStream, beerDTO));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @NonBlocking
+    @GetMapping(produces = TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCsv() {
+        return csvResponse();
+    }
+
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public ImportReportDTO importCsv(InputStream body) throws IOException {
+        return catalogImporter.importCsv(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportReportDTO importNdjson(InputStream body) throws IOException {
+        return catalogImporter.importNdjson(body);
     }
 
     @DeleteMapping("/{id}")
@@ -52,4 +178,93 @@ public class BeerController implements BeerControllerDocs {
     public BeerDTO decrement(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws BeerNotFoundException, BeerNegativeQuantityException {
         return beerService.decrement(id, quantityDTO.getQuantity());
     }
+
+    @PostMapping("/{id}/reservations")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ReservationDTO reserve(@PathVariable Long id, @RequestBody @Valid ReservationRequestDTO reservationRequestDTO)
+            throws BeerNotFoundException, BeerReservationNotSupportedException, BeerStockUnavailableException {
+        return beerService.reserve(id, reservationRequestDTO.getQuantity(), ttlOf(reservationRequestDTO));
+    }
+
+    @PostMapping("/reservations/{reservationId}/commit")
+    public BeerDTO commitReservation(@PathVariable String reservationId) throws ReservationNotFoundException, BeerNotFoundException {
+        return beerService.commitReservation(reservationId);
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void releaseReservation(@PathVariable String reservationId) throws ReservationNotFoundException {
+        beerService.releaseReservation(reservationId);
+    }
+
+    @PatchMapping("/stock")
+    public List<StockOperationResultDTO> adjustStock(@RequestBody @Valid StockAdjustmentDTO stockAdjustmentDTO) {
+        return stockAdjustmentService.adjust(stockAdjustmentDTO);
+    }
+
+    @PatchMapping("/{id}/reorder-point")
+    public BeerDTO updateReorderPoint(@PathVariable Long id, @RequestBody @Valid ReorderPointDTO reorderPointDTO) throws BeerNotFoundException {
+        return beerService.updateReorderPoint(id, reorderPointDTO.getReorderPoint());
+    }
+
+    @PatchMapping("/{id}/shards")
+    public BeerDTO shard(@PathVariable Long id, @RequestBody @Valid ShardCountDTO shardCountDTO) throws BeerNotFoundException, BeerShardingNotSupportedException {
+        return beerService.shard(id, shardCountDTO.getShards());
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public void rejected() {
+    }
+
+    static String eTagOf(BeerDTO beerDTO) {
+        return String.format("W/\"%s-%s-%s\"", beerDTO.getId(), beerDTO.getVersion(), beerDTO.getQuantity());
+    }
+
+    static String catalogETagOf(String catalogVersion) {
+        return String.format("W/\"%s\"", catalogVersion);
+    }
+
+    static Duration ttlOf(ReservationRequestDTO reservationRequestDTO) {
+        return reservationRequestDTO.getTtlSeconds() == null ? null : Duration.ofSeconds(reservationRequestDTO.getTtlSeconds());
+    }
+
+    static ResponseEntity<List<BeerDTO>> pageResponse(BeerPageDTO page, String eTag, UriComponentsBuilder currentRequest) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag);
+        if (page.getNextCursor() != null) {
+            String nextPage = currentRequest.replaceQueryParam("after", page.getNextCursor()).toUriString();
+            response.header(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", nextPage));
+        }
+        return response.body(page.getBeers());
+    }
+
+    private ResponseEntity<StreamingResponseBody> csvResponse() {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write(BeerCsv.HEADER);
+            writer.write('\n');
+            beerService.streamAll(beerDTO -> {
+                try {
+                    writer.write(BeerCsv.toLine(beerDTO));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=beers.csv")
+                .body(body);
+    }
+
+    private void writeLine(OutputStream outputStream, BeerDTO beerDTO) {
+        try {
+            beerWriter.writeValue(outputStream, beerDTO);
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
\ No newline at end of file
@@ -1,17 +1,39 @@
 package com.beerstock.controllers;
 
 import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.BeerSearchDTO;
+import com.beerstock.dtos.BeerSuggestionDTO;
+import com.beerstock.dtos.ImportReportDTO;
+import com.beerstock.dtos.InventoryStatsDTO;
 import com.beerstock.dtos.QuantityDTO;
+import com.beerstock.dtos.ReorderPointDTO;
+import com.beerstock.dtos.ReservationDTO;
+import com.beerstock.dtos.ReservationRequestDTO;
+import com.beerstock.dtos.ShardCountDTO;
+import com.beerstock.dtos.StockAdjustmentDTO;
+import com.beerstock.dtos.StockLevelDTO;
+import com.beerstock.dtos.StockOperationResultDTO;
 import com.beerstock.exceptions.BeerAlreadyRegisteredException;
 import com.beerstock.exceptions.BeerNegativeQuantityException;
 import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.exceptions.BeerReservationNotSupportedException;
+import com.beerstock.exceptions.BeerShardingNotSupportedException;
 import com.beerstock.exceptions.BeerStockExceededException;
+import com.beerstock.exceptions.BeerStockUnavailableException;
+import com.beerstock.exceptions.ReservationNotFoundException;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 
 @Api("Manages beer stock")
@@ -27,15 +49,63 @@ public interface BeerControllerDocs {
     @ApiOperation(value = "Returns beer found by a given name")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Success beer found in the system"),
+            @ApiResponse(code = 304, message = "Beer unchanged since the given If-None-Match ETag"),
             @ApiResponse(code = 404, message = "Beer with given name not found.")
     })
-    BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException;
+    ResponseEntity<BeerDTO> findByName(@PathVariable String name, WebRequest request) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Streams stock changes as Server-Sent Events")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Event stream, resumed after the given Last-Event-ID")
+    })
+    SseEmitter stockEvents(Long lastEventId);
+
+    @ApiOperation(value = "Returns the quantity of a beer at a given time, now by default")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success quantity rebuilt from the stock movements"),
+            @ApiResponse(code = 404, message = "Beer with given id had no stock at that time.")
+    })
+    StockLevelDTO stockAt(@PathVariable Long id, Instant at) throws BeerNotFoundException;
 
     @ApiOperation(value = "Returns a list of all beers registered in the system")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "List of all beers registered in the system"),
+            @ApiResponse(code = 304, message = "No beer changed since the given If-None-Match ETag"),
+    })
+    ResponseEntity<List<BeerDTO>> listAll(WebRequest request);
+
+    @ApiOperation(value = "Returns a page of beers ordered by id, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of beers, with a Link header to the next page when there is one"),
+            @ApiResponse(code = 304, message = "No beer changed since the given If-None-Match ETag"),
+    })
+    ResponseEntity<List<BeerDTO>> listPage(Long after, int size, WebRequest request);
+
+    @ApiOperation(value = "Returns a page of beers matching brand, type, name prefix and quantity or max ranges")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of matching beers, with a Link header to the next page when there is one"),
+            @ApiResponse(code = 304, message = "No beer changed since the given If-None-Match ETag"),
+            @ApiResponse(code = 400, message = "Invalid filter.")
+    })
+    ResponseEntity<List<BeerDTO>> search(BeerSearchDTO search, WebRequest request);
+
+    @ApiOperation(value = "Returns units on hand, fill ratio and SKUs at zero for the catalog, per beer type and per brand")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Inventory totals, maintained on every write"),
     })
-    List<BeerDTO> listAll();
+    InventoryStatsDTO statistics();
+
+    @ApiOperation(value = "Suggests beers whose name or brand has a word starting with the query, tolerating typos")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Up to limit suggestions, exact prefixes first"),
+    })
+    List<BeerSuggestionDTO> suggest(String query, int limit);
+
+    @ApiOperation(value = "Streams all beers registered in the system as newline delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "One beer per line, streamed from the database"),
+    })
+    ResponseEntity<StreamingResponseBody> streamAll();
 
     @ApiOperation(value = "Delete a beer found by a given valid Id")
     @ApiResponses(value = {
@@ -59,4 +129,68 @@ public interface BeerControllerDocs {
             @ApiResponse(code = 400, message = "Quantity to decrement would make beer quantity negative")
     })
     BeerDTO decrement(@PathVariable Long id, QuantityDTO quantityDTO) throws BeerNotFoundException, BeerNegativeQuantityException;
+
+    @ApiOperation(value = "Hold units of a beer for a checkout until they are committed, released or expire")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Success units reserved"),
+            @ApiResponse(code = 404, message = "Beer with given id not found."),
+            @ApiResponse(code = 400, message = "Fewer units available than asked, or beer sharded or stock ledger enabled.")
+    })
+    ReservationDTO reserve(@PathVariable Long id, ReservationRequestDTO reservationRequestDTO)
+            throws BeerNotFoundException, BeerReservationNotSupportedException, BeerStockUnavailableException;
+
+    @ApiOperation(value = "Decrement a beer by the units of a reservation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success reserved units decremented"),
+            @ApiResponse(code = 404, message = "Reservation with given id not found or expired.")
+    })
+    BeerDTO commitReservation(@PathVariable String reservationId) throws ReservationNotFoundException, BeerNotFoundException;
+
+    @ApiOperation(value = "Release the units of a reservation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Success reserved units released"),
+            @ApiResponse(code = 404, message = "Reservation with given id not found or expired.")
+    })
+    void releaseReservation(@PathVariable String reservationId) throws ReservationNotFoundException;
+
+    @ApiOperation(value = "Apply a list of quantity deltas to several beers at once")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Result of each operation, rolled back ones included"),
+            @ApiResponse(code = 400, message = "Missing operations or delta out of range.")
+    })
+    List<StockOperationResultDTO> adjustStock(StockAdjustmentDTO stockAdjustmentDTO);
+
+    @ApiOperation(value = "Set or clear the quantity at which a low-stock alert is raised")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success beer reorder point updated"),
+            @ApiResponse(code = 404, message = "Beer with given id not found."),
+            @ApiResponse(code = 400, message = "Reorder point out of range.")
+    })
+    BeerDTO updateReorderPoint(@PathVariable Long id, ReorderPointDTO reorderPointDTO) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Spread a beer quantity over the given number of stock shards")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success beer quantity resharded"),
+            @ApiResponse(code = 404, message = "Beer with given id not found."),
+            @ApiResponse(code = 400, message = "Shard count out of range or stock ledger enabled.")
+    })
+    BeerDTO shard(@PathVariable Long id, ShardCountDTO shardCountDTO) throws BeerNotFoundException, BeerShardingNotSupportedException;
+
+    @ApiOperation(value = "Streams all beers registered in the system as CSV")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Header line, then one beer per line, streamed from the database"),
+    })
+    ResponseEntity<StreamingResponseBody> exportCsv();
+
+    @ApiOperation(value = "Imports beers from a CSV file with a header line, skipping names already registered")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Counts of imported, duplicate and failed lines, with the errors of the first failed lines"),
+    })
+    ImportReportDTO importCsv(InputStream body) throws IOException;
+
+    @ApiOperation(value = "Imports beers from newline delimited JSON, skipping names already registered")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Counts of imported, duplicate and failed lines, with the errors of the first failed lines"),
+    })
+    ImportReportDTO importNdjson(InputStream body) throws IOException;
 }
@@ -0,0 +1,135 @@
+package com.beerstock.controllers;
+
+import com.beerstock.config.ConcurrencyLimitProperties;
+import com.beerstock.dtos.ConcurrencyLimitDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sheds beer requests beyond an {@link AdaptiveConcurrencyLimit} with 429 and a Retry-After
+ * header, instead of letting them queue for a database connection.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@ConditionalOnProperty(name = "beerstock.limits.enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    public static final String RETRY_AFTER = "Retry-After";
+    public static final String READS = "reads";
+    public static final String MUTATIONS = "mutations";
+    private static final String BEER_API_PATH = "/api/v1/beers";
+    // Event streams stay open for minutes, imports run as long as their body and exports as long as
+    // the catalog takes to stream, none has a latency worth adapting to.
+    private static final String STOCK_EVENTS_PATH = BEER_API_PATH + "/stock/events";
+    private static final String BEER_IMPORT_PATH = BEER_API_PATH + "/import";
+    private static final List<MediaType> EXPORT_TYPES = List.of(MediaType.APPLICATION_NDJSON, BeerController.TEXT_CSV);
+
+    private final AdaptiveConcurrencyLimit reads;
+    private final AdaptiveConcurrencyLimit mutations;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties) {
+        this.reads = new AdaptiveConcurrencyLimit(properties.getReads());
+        this.mutations = new AdaptiveConcurrencyLimit(properties.getMutations());
+        Duration retryAfter = properties.getRetryAfter();
+        this.retryAfterSeconds = String.valueOf(retryAfter.getSeconds() + (retryAfter.getNano() > 0 ? 1 : 0));
+    }
+
+    public Map<String, ConcurrencyLimitDTO> limits() {
+        Map<String, ConcurrencyLimitDTO> limits = new LinkedHashMap<>();
+        limits.put(READS, reads.snapshot());
+        limits.put(MUTATIONS, mutations.snapshot());
+        return limits;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith(BEER_API_PATH) || uri.startsWith(STOCK_EVENTS_PATH) || uri.startsWith(BEER_IMPORT_PATH) || isExport(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        AdaptiveConcurrencyLimit limit = method == HttpMethod.GET || method == HttpMethod.HEAD ? reads : mutations;
+        if (!limit.tryAcquire()) {
+            response.setHeader(RETRY_AFTER, retryAfterSeconds);
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many concurrent requests, retry later.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (isAsyncStarted(request)) {
+                request.getAsyncContext().addListener(new ReleasingListener(limit, start));
+            } else {
+                limit.release(start, System.nanoTime());
+            }
+        }
+    }
+
+    private static boolean isExport(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || HttpMethod.resolve(request.getMethod()) != HttpMethod.GET) return false;
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(type -> EXPORT_TYPES.stream().anyMatch(type::equalsTypeAndSubtype));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Releases the permit of an asynchronous request once its response is complete, which
+     * happens after an error or a timeout too.
+     */
+    private static final class ReleasingListener implements AsyncListener {
+        private final AdaptiveConcurrencyLimit limit;
+        private final long start;
+
+        private ReleasingListener(AdaptiveConcurrencyLimit limit, long start) {
+            this.limit = limit;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limit.release(start, System.nanoTime());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.beerstock.controllers;
+
+import com.beerstock.enums.IdempotencyClaimStatus;
+import com.beerstock.services.IdempotencyStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Replays the stored response of a beer write carrying an {@code Idempotency-Key} header instead
+ * of running it again, so a client retrying after a timeout does not apply a stock change twice.
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String BEER_API_PATH = "/api/v1/beers";
+    // Imports stream bodies of any size, which the fingerprint would have to buffer.
+    private static final String BEER_IMPORT_PATH = BEER_API_PATH + "/import";
+    private static final String FINGERPRINT_ATTRIBUTE = IdempotencyFilter.class.getName() + ".FINGERPRINT";
+
+    private final IdempotencyStore idempotencyStore;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getAttribute(FINGERPRINT_ATTRIBUTE) != null) return false;
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        return request.getHeader(IDEMPOTENCY_KEY) == null
+                || !request.getRequestURI().startsWith(BEER_API_PATH)
+                || request.getRequestURI().startsWith(BEER_IMPORT_PATH)
+                || !(method == HttpMethod.POST || method == HttpMethod.PATCH || method == HttpMethod.DELETE);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    // Errors raised through sendError get their body from the container's error dispatch, which is stored over the empty one.
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY);
+        String fingerprint = (String) request.getAttribute(FINGERPRINT_ATTRIBUTE);
+        if (fingerprint == null) {
+            if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+                response.sendError(HttpStatus.BAD_REQUEST.value(), String.format("%s must be 1 to %d characters long.", IDEMPOTENCY_KEY, MAX_KEY_LENGTH));
+                return;
+            }
+            BufferedRequest bufferedRequest = new BufferedRequest(request);
+            fingerprint = fingerprintOf(bufferedRequest);
+            IdempotencyStore.Claim claim = idempotencyStore.claim(key, fingerprint);
+            if (claim.getStatus() == IdempotencyClaimStatus.REPLAY) {
+                replay(claim.getResponse(), response);
+                return;
+            } else if (claim.getStatus() == IdempotencyClaimStatus.IN_PROGRESS) {
+                response.sendError(HttpStatus.CONFLICT.value(), String.format("A request with %s %s is still running.", IDEMPOTENCY_KEY, key));
+                return;
+            } else if (claim.getStatus() == IdempotencyClaimStatus.MISMATCH) {
+                response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), String.format("%s %s was used for another request.", IDEMPOTENCY_KEY, key));
+                return;
+            }
+            request = bufferedRequest;
+            request.setAttribute(FINGERPRINT_ATTRIBUTE, fingerprint);
+        }
+
+        ContentCachingResponseWrapper cachingResponse = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (cachingResponse == null) cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean handled = false;
+        try {
+            filterChain.doFilter(request, cachingResponse);
+            handled = true;
+        } finally {
+            if (!isAsyncStarted(request)) {
+                if (handled && cachingResponse.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                    idempotencyStore.complete(key, new IdempotencyStore.StoredResponse(fingerprint, cachingResponse.getStatus(),
+                            cachingResponse.getContentType(), cachingResponse.getContentAsByteArray()));
+                } else if (request.getDispatcherType() != DispatcherType.ERROR) {
+                    idempotencyStore.release(key);
+                }
+                cachingResponse.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void replay(IdempotencyStore.StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) response.setContentType(stored.getContentType());
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private static String fingerprintOf(BufferedRequest request) {
+        String target = request.getMethod() + " " + request.getRequestURI() + (request.getQueryString() == null ? "" : "?" + request.getQueryString());
+        return target + " " + DigestUtils.md5DigestAsHex(request.body);
+    }
+
+    /**
+     * Reads the body up front, so it can be fingerprinted before the controller reads it.
+     */
+    private static final class BufferedRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private BufferedRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.beerstock.controllers;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Invokes the handler methods of {@link Offloaded} controllers on the executor and hands Spring
+ * the resulting future, so the request thread goes back to the container while they wait.
+ */
+public class OffloadingHandlerAdapter extends RequestMappingHandlerAdapter {
+    private final Executor executor;
+
+    public OffloadingHandlerAdapter(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        if (!isOffloaded(handlerMethod)) return super.createInvocableHandlerMethod(handlerMethod);
+        return new ServletInvocableHandlerMethod(handlerMethod) {
+            @Override
+            protected Object doInvoke(Object... args) {
+                RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+                return CompletableFuture.supplyAsync(() -> {
+                    RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+                    RequestContextHolder.setRequestAttributes(attributes);
+                    try {
+                        return super.doInvoke(args);
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    } finally {
+                        RequestContextHolder.setRequestAttributes(previous);
+                    }
+                }, executor);
+            }
+        };
+    }
+
+    private static boolean isOffloaded(HandlerMethod handlerMethod) {
+        return AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), Offloaded.class)
+                && !handlerMethod.hasMethodAnnotation(NonBlocking.class);
+    }
+}
@@ -0,0 +1,72 @@
+package com.beerstock.controllers;
+
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.QuantityDTO;
+import com.beerstock.dtos.StockAdjustmentDTO;
+import com.beerstock.dtos.StockOperationResultDTO;
+import com.beerstock.services.ReactiveBeerService;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * WebFlux implementation of the {@code api/v1/beers} contract, served instead of
+ * {@link BeerController} under the reactive profile.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("api/v1/beers")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBeerController {
+    private final ReactiveBeerService beerService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BeerDTO> create(@RequestBody @Valid BeerDTO beerDTO) {
+        return beerService.create(beerDTO);
+    }
+
+    @GetMapping("/{name}")
+    public Mono<BeerDTO> findByName(@PathVariable String name) {
+        return beerService.findByName(name);
+    }
+
+    @GetMapping
+    public Flux<BeerDTO> listAll() {
+        return beerService.listAll();
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BeerDTO> streamAll() {
+        return beerService.listAll();
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteById(@PathVariable Long id) {
+        return beerService.deleteById(id);
+    }
+
+    @PatchMapping("/{id}/increment")
+    public Mono<BeerDTO> increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) {
+        return beerService.increment(id, quantityDTO.getQuantity());
+    }
+
+    @PatchMapping("/{id}/decrement")
+    public Mono<BeerDTO> decrement(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) {
+        return beerService.decrement(id, quantityDTO.getQuantity());
+    }
+
+    @PatchMapping("/stock")
+    public Mono<List<StockOperationResultDTO>> adjustStock(@RequestBody @Valid StockAdjustmentDTO stockAdjustmentDTO) {
+        return beerService.adjust(stockAdjustmentDTO);
+    }
+}
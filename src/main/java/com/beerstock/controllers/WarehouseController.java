@@ -0,0 +1,56 @@
+package com.beerstock.controllers;
+
+import com.beerstock.dtos.BeerLocationsDTO;
+import com.beerstock.dtos.QuantityDTO;
+import com.beerstock.dtos.WarehouseDTO;
+import com.beerstock.exceptions.BeerNegativeQuantityException;
+import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.exceptions.BeerStockExceededException;
+import com.beerstock.exceptions.WarehouseAlreadyRegisteredException;
+import com.beerstock.exceptions.WarehouseNotFoundException;
+import com.beerstock.exceptions.WarehouseStockNotSupportedException;
+import com.beerstock.services.WarehouseService;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("api/v1")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class WarehouseController implements WarehouseControllerDocs {
+    private final WarehouseService warehouseService;
+
+    @PostMapping("/warehouses")
+    @ResponseStatus(HttpStatus.CREATED)
+    public WarehouseDTO create(@RequestBody @Valid WarehouseDTO warehouseDTO) throws WarehouseAlreadyRegisteredException {
+        return warehouseService.create(warehouseDTO);
+    }
+
+    @GetMapping("/warehouses")
+    public List<WarehouseDTO> listAll() {
+        return warehouseService.listAll();
+    }
+
+    @GetMapping("/beers/{id}/warehouses")
+    public BeerLocationsDTO locations(@PathVariable Long id) throws BeerNotFoundException {
+        return warehouseService.locations(id);
+    }
+
+    @PatchMapping("/beers/{id}/warehouses/{code}/increment")
+    public BeerLocationsDTO increment(@PathVariable Long id, @PathVariable String code, @RequestBody @Valid QuantityDTO quantityDTO)
+            throws BeerNotFoundException, WarehouseNotFoundException, BeerStockExceededException, WarehouseStockNotSupportedException {
+        return warehouseService.increment(id, code, quantityDTO.getQuantity());
+    }
+
+    @PatchMapping("/beers/{id}/warehouses/{code}/decrement")
+    public BeerLocationsDTO decrement(@PathVariable Long id, @PathVariable String code, @RequestBody @Valid QuantityDTO quantityDTO)
+            throws BeerNotFoundException, WarehouseNotFoundException, BeerNegativeQuantityException, WarehouseStockNotSupportedException {
+        return warehouseService.decrement(id, code, quantityDTO.getQuantity());
+    }
+}
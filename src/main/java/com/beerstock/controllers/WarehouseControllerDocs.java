@@ -0,0 +1,60 @@
+package com.beerstock.controllers;
+
+import com.beerstock.dtos.BeerLocationsDTO;
+import com.beerstock.dtos.QuantityDTO;
+import com.beerstock.dtos.WarehouseDTO;
+import com.beerstock.exceptions.BeerNegativeQuantityException;
+import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.exceptions.BeerStockExceededException;
+import com.beerstock.exceptions.WarehouseAlreadyRegisteredException;
+import com.beerstock.exceptions.WarehouseNotFoundException;
+import com.beerstock.exceptions.WarehouseStockNotSupportedException;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.util.List;
+
+@Api("Manages beer stock per warehouse")
+public interface WarehouseControllerDocs {
+
+    @ApiOperation(value = "Warehouse creation operation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Success warehouse creation"),
+            @ApiResponse(code = 400, message = "Missing required fields or code already registered.")
+    })
+    WarehouseDTO create(WarehouseDTO warehouseDTO) throws WarehouseAlreadyRegisteredException;
+
+    @ApiOperation(value = "Returns a list of all warehouses")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "List of all warehouses registered in the system"),
+    })
+    List<WarehouseDTO> listAll();
+
+    @ApiOperation(value = "Returns the quantity of a beer held by each warehouse, the units held by none and the beer total")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Quantities per warehouse, maintained on every warehouse write"),
+            @ApiResponse(code = 404, message = "Beer with given id not found.")
+    })
+    BeerLocationsDTO locations(@PathVariable Long id) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Increment the quantity of a beer held by a warehouse")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success warehouse quantity incremented"),
+            @ApiResponse(code = 404, message = "Beer or warehouse not found."),
+            @ApiResponse(code = 400, message = "Quantity to increment would exceed beer maximum amount, or the beer is sharded or ledger-managed")
+    })
+    BeerLocationsDTO increment(@PathVariable Long id, @PathVariable String code, QuantityDTO quantityDTO)
+            throws BeerNotFoundException, WarehouseNotFoundException, BeerStockExceededException, WarehouseStockNotSupportedException;
+
+    @ApiOperation(value = "Decrement the quantity of a beer held by a warehouse")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success warehouse quantity decremented"),
+            @ApiResponse(code = 404, message = "Beer or warehouse not found."),
+            @ApiResponse(code = 400, message = "Quantity to decrement would make the warehouse quantity negative, or the beer is sharded or ledger-managed")
+    })
+    BeerLocationsDTO decrement(@PathVariable Long id, @PathVariable String code, QuantityDTO quantityDTO)
+            throws BeerNotFoundException, WarehouseNotFoundException, BeerNegativeQuantityException, WarehouseStockNotSupportedException;
+}
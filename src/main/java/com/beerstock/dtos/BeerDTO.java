@@ -1,6 +1,8 @@
 package com.beerstock.dtos;
 
 import com.beerstock.enums.BeerType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +11,7 @@ import lombok.NoArgsConstructor;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
@@ -38,4 +41,17 @@ public class BeerDTO {
     @NotNull
     @Enumerated(EnumType.STRING)
     private BeerType type;
+
+    @Min(0)
+    @Max(500)
+    private Integer reorderPoint;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int reserved;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int located;
+
+    @JsonIgnore
+    private Long version;
 }
@@ -0,0 +1,22 @@
+package com.beerstock.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerLocationsDTO {
+    private Long id;
+
+    private long total;
+
+    private long unassigned;
+
+    private List<WarehouseStockDTO> warehouses;
+}
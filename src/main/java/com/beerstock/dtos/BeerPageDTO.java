@@ -0,0 +1,18 @@
+package com.beerstock.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerPageDTO {
+    private List<BeerDTO> beers;
+
+    private Long nextCursor;
+}
@@ -0,0 +1,44 @@
+package com.beerstock.dtos;
+
+import com.beerstock.enums.BeerType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Size;
+
+/**
+ * Filters of a beer search.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerSearchDTO {
+    @Size(min = 1, max = 200)
+    private String name;
+
+    @Size(min = 1, max = 200)
+    private String brand;
+
+    private BeerType type;
+
+    @Min(0)
+    private Integer minQuantity;
+
+    @Min(0)
+    private Integer maxQuantity;
+
+    @Min(0)
+    private Integer minMax;
+
+    @Min(0)
+    private Integer maxMax;
+
+    private Long after;
+
+    @Min(1)
+    private Integer size;
+}
@@ -0,0 +1,20 @@
+package com.beerstock.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerSuggestionDTO {
+    private Long id;
+
+    private String name;
+
+    private String brand;
+
+    private Integer distance;
+}
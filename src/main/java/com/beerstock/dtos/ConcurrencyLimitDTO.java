@@ -0,0 +1,18 @@
+package com.beerstock.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConcurrencyLimitDTO {
+    private int limit;
+
+    private int inFlight;
+
+    private long rejected;
+}
@@ -0,0 +1,24 @@
+package com.beerstock.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDTO {
+    private long imported;
+
+    private long duplicates;
+
+    private long failed;
+
+    @Builder.Default
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.beerstock.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryStatsDTO {
+    private InventoryTotalsDTO total;
+
+    private List<InventoryTotalsDTO> byType;
+
+    private List<InventoryTotalsDTO> byBrand;
+}
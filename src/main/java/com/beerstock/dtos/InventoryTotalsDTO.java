@@ -0,0 +1,24 @@
+package com.beerstock.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryTotalsDTO {
+    private String group;
+
+    private long skus;
+
+    private long unitsOnHand;
+
+    private long capacity;
+
+    private double fillRatio;
+
+    private long skusAtZero;
+}
@@ -0,0 +1,28 @@
+package com.beerstock.dtos;
+
+import com.beerstock.enums.StockAdjustmentMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentDTO {
+    @NotNull
+    @Builder.Default
+    private StockAdjustmentMode mode = StockAdjustmentMode.ALL_OR_NOTHING;
+
+    @Valid
+    @NotEmpty
+    @Size(max = 1000)
+    private List<StockOperationDTO> operations;
+}
@@ -0,0 +1,29 @@
+package com.beerstock.dtos;
+
+import com.beerstock.enums.StockAlertType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAlertDTO {
+    private Long id;
+
+    private String name;
+
+    private StockAlertType type;
+
+    private Integer quantity;
+
+    private Integer reorderPoint;
+
+    private Double unitsPerHour;
+
+    private Instant projectedDepletionAt;
+}
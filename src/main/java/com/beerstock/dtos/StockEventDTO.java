@@ -0,0 +1,21 @@
+package com.beerstock.dtos;
+
+import com.beerstock.enums.StockMovementType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockEventDTO {
+    private Long id;
+
+    private StockMovementType type;
+
+    private Integer delta;
+
+    private Integer quantity;
+}
@@ -0,0 +1,16 @@
+package com.beerstock.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockEventResetDTO {
+    private Long lastEventId;
+
+    private Long resumedAfter;
+}
@@ -0,0 +1,28 @@
+package com.beerstock.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockOperationDTO {
+    @NotNull
+    private Long id;
+
+    @NotNull
+    private Integer delta;
+
+    @JsonIgnore
+    @AssertTrue(message = "delta must not be zero")
+    public boolean isNonZeroDelta() {
+        return delta == null || delta != 0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.beerstock.dtos;
+
+import com.beerstock.enums.StockOperationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockOperationResultDTO {
+    private Long id;
+
+    private Integer delta;
+
+    private StockOperationStatus status;
+
+    private Integer quantity;
+}
@@ -0,0 +1,26 @@
+package com.beerstock.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseDTO {
+    private Long id;
+
+    @NotNull
+    @Pattern(regexp = "[A-Za-z0-9_-]{1,50}")
+    private String code;
+
+    @NotNull
+    @Size(min = 1, max = 200)
+    private String name;
+}
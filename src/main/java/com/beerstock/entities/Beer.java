@@ -11,6 +11,13 @@ import javax.persistence.*;
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_beer_brand_type_quantity", columnList = "brand, type, quantity"),
+        @Index(name = "idx_beer_type_quantity", columnList = "type, quantity"),
+        @Index(name = "idx_beer_quantity", columnList = "quantity"),
+        @Index(name = "idx_beer_max", columnList = "max"),
+        @Index(name = "idx_beer_shards", columnList = "shards")
+})
 public class Beer {
 
     @Id
@@ -32,4 +39,21 @@ public class Beer {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BeerType type;
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    private int shards = 1;
+
+    private Integer reorderPoint;
+
+    @Column(nullable = false)
+    private int reserved;
+
+    @Column(nullable = false)
+    private int located;
+
+    @Column(nullable = false)
+    private int allotted;
 }
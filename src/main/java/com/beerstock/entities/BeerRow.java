@@ -0,0 +1,42 @@
+package com.beerstock.entities;
+
+import com.beerstock.enums.BeerType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of the {@code beer} table used by the reactive profile, with the columns of
+ * {@link Beer} that {@link com.beerstock.dtos.BeerDTO} carries; the others keep their defaults.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("beer")
+public class BeerRow {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String brand;
+
+    private int quantity;
+
+    private int max;
+
+    private BeerType type;
+
+    @Version
+    private Long version;
+
+    private Integer reorderPoint;
+
+    private int reserved;
+
+    private int located;
+}
@@ -0,0 +1,38 @@
+package com.beerstock.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Response stored for an {@code Idempotency-Key}, kept when idempotency keys are persistent so a
+ * retry reaching another instance or a restarted one is still replayed.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(columnList = "createdAt"))
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private int status;
+
+    private String contentType;
+
+    @Lob
+    private byte[] body;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
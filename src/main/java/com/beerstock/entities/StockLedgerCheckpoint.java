@@ -0,0 +1,22 @@
+package com.beerstock.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerCheckpoint {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private long segment;
+}
@@ -0,0 +1,35 @@
+package com.beerstock.entities;
+
+import com.beerstock.enums.StockMovementType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(columnList = "beer_id, id"))
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movement_sequence")
+    @SequenceGenerator(name = "stock_movement_sequence", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "beer_id", nullable = false)
+    private Long beerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StockMovementType type;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+}
@@ -0,0 +1,35 @@
+package com.beerstock.entities;
+
+import com.beerstock.enums.StockMovementType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * A {@link StockMovement} moved out of the journal by compaction, keeping its original id.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementArchive {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long beerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StockMovementType type;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+}
@@ -0,0 +1,31 @@
+package com.beerstock.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Units of a beer held for a checkout until they are committed, released or expire.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_stock_reservation_beer", columnList = "beerId"))
+public class StockReservation {
+
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private Long beerId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -3,6 +3,9 @@ package com.beerstock.enums;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+/**
+ * Sent as its ordinal in the binary format, so new types go at the end.
+ */
 @Getter
 @AllArgsConstructor
 public enum BeerType {
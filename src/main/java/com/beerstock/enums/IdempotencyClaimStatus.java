@@ -0,0 +1,8 @@
+package com.beerstock.enums;
+
+public enum IdempotencyClaimStatus {
+    CLAIMED,
+    REPLAY,
+    IN_PROGRESS,
+    MISMATCH
+}
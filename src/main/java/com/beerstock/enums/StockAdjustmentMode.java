@@ -0,0 +1,13 @@
+package com.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockAdjustmentMode {
+    ALL_OR_NOTHING("All or nothing"),
+    BEST_EFFORT("Best effort");
+
+    private final String description;
+}
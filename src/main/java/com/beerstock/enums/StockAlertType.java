@@ -0,0 +1,13 @@
+package com.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockAlertType {
+    LOW_STOCK("Quantity at or below the reorder point"),
+    DEPLETION_FORECAST("Projected to run out within the depletion horizon");
+
+    private final String description;
+}
@@ -0,0 +1,15 @@
+package com.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockMovementType {
+    CREATED("Created"),
+    INCREMENTED("Incremented"),
+    DECREMENTED("Decremented"),
+    DELETED("Deleted");
+
+    private final String description;
+}
@@ -0,0 +1,16 @@
+package com.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockOperationStatus {
+    APPLIED("Applied"),
+    NOT_FOUND("Beer not found"),
+    EXCEEDED("Stock limit exceeded"),
+    NEGATIVE("Negative quantity"),
+    ROLLED_BACK("Rolled back");
+
+    private final String description;
+}
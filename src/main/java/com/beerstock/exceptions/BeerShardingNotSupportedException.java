@@ -0,0 +1,15 @@
+package com.beerstock.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BeerShardingNotSupportedException extends Exception {
+    public BeerShardingNotSupportedException(Long beerId) {
+        super(String.format("Stock of beer with id %s cannot be sharded while the stock ledger is enabled.", beerId));
+    }
+
+    public BeerShardingNotSupportedException(Long beerId, int held) {
+        super(String.format("Stock of beer with id %s cannot be sharded while %s of its units are reserved or held by warehouses.", beerId, held));
+    }
+}
@@ -0,0 +1,11 @@
+package com.beerstock.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BeerStockUnavailableException extends Exception {
+    public BeerStockUnavailableException(Long id, int quantityToReserve) {
+        super(String.format("Beer with id %s cannot reserve %s units, fewer are available.", id, quantityToReserve));
+    }
+}
@@ -0,0 +1,11 @@
+package com.beerstock.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ReservationNotFoundException extends Exception {
+    public ReservationNotFoundException(String reservationId) {
+        super(String.format("We could not find an open reservation with id %s, it may have expired.", reservationId));
+    }
+}
@@ -0,0 +1,11 @@
+package com.beerstock.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class WarehouseAlreadyRegisteredException extends Exception {
+    public WarehouseAlreadyRegisteredException(String code) {
+        super(String.format("Warehouse with code %s has already been registered in our database.", code));
+    }
+}
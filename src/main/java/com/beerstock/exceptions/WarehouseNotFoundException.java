@@ -0,0 +1,11 @@
+package com.beerstock.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class WarehouseNotFoundException extends Exception {
+    public WarehouseNotFoundException(String code) {
+        super(String.format("We could not find a warehouse with code %s in our database.", code));
+    }
+}
@@ -0,0 +1,11 @@
+package com.beerstock.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class WarehouseStockNotSupportedException extends Exception {
+    public WarehouseStockNotSupportedException(Long beerId) {
+        super(String.format("Stock of beer with id %s cannot be held by warehouses while it is sharded or the stock ledger is enabled.", beerId));
+    }
+}
@@ -2,14 +2,22 @@ package com.beerstock.mappers;
 
 import com.beerstock.dtos.BeerDTO;
 import com.beerstock.entities.Beer;
+import com.beerstock.entities.BeerRow;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
 public interface BeerMapper {
     BeerMapper INSTANCE = Mappers.getMapper(BeerMapper.class);
 
+    @Mapping(target = "shards", ignore = true)
+    @Mapping(target = "allotted", ignore = true)
     Beer toModel(BeerDTO beerDTO);
 
     BeerDTO toDTO(Beer beer);
+
+    BeerRow toRow(BeerDTO beerDTO);
+
+    BeerDTO toDTO(BeerRow beerRow);
 }
@@ -0,0 +1,15 @@
+package com.beerstock.mappers;
+
+import com.beerstock.dtos.WarehouseDTO;
+import com.beerstock.entities.Warehouse;
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+@Mapper
+public interface WarehouseMapper {
+    WarehouseMapper INSTANCE = Mappers.getMapper(WarehouseMapper.class);
+
+    Warehouse toModel(WarehouseDTO warehouseDTO);
+
+    WarehouseDTO toDTO(Warehouse warehouse);
+}
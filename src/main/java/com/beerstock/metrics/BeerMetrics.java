@@ -0,0 +1,70 @@
+package com.beerstock.metrics;
+
+import com.beerstock.enums.BeerType;
+import com.beerstock.enums.StockMovementType;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.services.BeerChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stock movement meters.
+ */
+@Component
+@Profile("!reactive")
+public class BeerMetrics {
+    private final BeerRepository beerRepository;
+    private final AtomicLong onHandStock = new AtomicLong();
+    private final Map<BeerType, Counter> incrementedUnits = new EnumMap<>(BeerType.class);
+    private final Map<BeerType, Counter> decrementedUnits = new EnumMap<>(BeerType.class);
+
+    public BeerMetrics(MeterRegistry meterRegistry, BeerRepository beerRepository) {
+        this.beerRepository = beerRepository;
+        Gauge.builder("beerstock.stock.on.hand", onHandStock, AtomicLong::get)
+                .description("Units of beer in stock")
+                .register(meterRegistry);
+        for (BeerType type : BeerType.values()) {
+            incrementedUnits.put(type, unitsCounter(meterRegistry, type, "incremented"));
+            decrementedUnits.put(type, unitsCounter(meterRegistry, type, "decremented"));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        onHandStock.set(beerRepository.sumQuantity());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (event.getMovement() == StockMovementType.CREATED || event.getMovement() == StockMovementType.DELETED) onHandChanged(event.getDelta());
+        else if (event.getMovement() != null) stockAdjusted(event.getBeer().getType(), event.getDelta());
+    }
+
+    public void onHandChanged(int delta) {
+        onHandStock.addAndGet(delta);
+    }
+
+    public void stockAdjusted(BeerType type, int delta) {
+        if (delta >= 0) incrementedUnits.get(type).increment(delta);
+        else decrementedUnits.get(type).increment(-delta);
+        onHandStock.addAndGet(delta);
+    }
+
+    private Counter unitsCounter(MeterRegistry meterRegistry, BeerType type, String direction) {
+        return Counter.builder("beerstock.stock.units")
+                .description("Units of beer moved by stock adjustments")
+                .tag("type", type.name())
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.beerstock.metrics;
+
+import com.beerstock.exceptions.BeerAlreadyRegisteredException;
+import com.beerstock.exceptions.BeerNegativeQuantityException;
+import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.exceptions.BeerStockExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public {@code BeerService} operation, tagged with the method name and the outcome
+ * of the call, and publishes a percentile histogram for each of them.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class BeerServiceTimings {
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.beerstock.services.BeerService.*(..)) && !execution(* catalogVersion())")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("beerstock.service")
+                    .description("Time spent in beer service operations")
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private String outcomeOf(Throwable e) {
+        if (e instanceof BeerNotFoundException) return "not-found";
+        if (e instanceof BeerStockExceededException) return "exceeded";
+        if (e instanceof BeerNegativeQuantityException) return "negative";
+        if (e instanceof BeerAlreadyRegisteredException) return "already-registered";
+        return "error";
+    }
+}
@@ -0,0 +1,30 @@
+package com.beerstock.metrics;
+
+import com.beerstock.controllers.ConcurrencyLimitFilter;
+import com.beerstock.dtos.ConcurrencyLimitDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Serves the current limit, requests in flight and requests shed of each concurrency budget at
+ * {@code /actuator/concurrencylimits}.
+ */
+@Component
+@Profile("!reactive")
+@Endpoint(id = "concurrencylimits")
+@ConditionalOnProperty(name = "beerstock.limits.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ConcurrencyLimitsEndpoint {
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @ReadOperation
+    public Map<String, ConcurrencyLimitDTO> limits() {
+        return concurrencyLimitFilter.limits();
+    }
+}
@@ -1,10 +1,111 @@
 package com.beerstock.repositories;
 
 import com.beerstock.entities.Beer;
+import com.beerstock.enums.BeerType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface BeerRepository extends JpaRepository<Beer, Long> {
+public interface BeerRepository extends JpaRepository<Beer, Long>, BeerSearchRepository {
     Optional<Beer> findByName(String name);
+
+    List<Beer> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select coalesce(sum(b.quantity), 0) + (select coalesce(sum(s.quantity), 0) from BeerStockShard s) from Beer b")
+    long sumQuantity();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Beer b where b.id = :id")
+    Optional<Beer> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("select b from Beer b order by b.id")
+    Stream<Beer> streamAll();
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Beer b set b.quantity = b.quantity + :delta, b.version = b.version + 1 " +
+            "where b.id = :id and b.shards = 1 and b.quantity + :delta between b.reserved + b.located and b.max + b.located - b.allotted")
+    int adjustQuantity(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Beer b set b.reserved = b.reserved + :quantity, b.version = b.version + 1 " +
+            "where b.id = :id and b.shards = 1 and b.quantity - b.reserved - b.located >= :quantity")
+    int reserve(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Beer b set b.quantity = b.quantity - :quantity, b.reserved = b.reserved - :quantity, b.version = b.version + 1 " +
+            "where b.id = :id and b.reserved >= :quantity")
+    int commitReserved(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Beer b set b.reserved = b.reserved - :quantity, b.version = b.version + 1 " +
+            "where b.id = :id and b.reserved >= :quantity")
+    int releaseReserved(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Beer b set b.reorderPoint = :reorderPoint, b.version = b.version + 1 where b.id = :id")
+    int updateReorderPoint(@Param("id") Long id, @Param("reorderPoint") Integer reorderPoint);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Beer b where b.id = :id")
+    int deleteBeer(@Param("id") Long id);
+
+    @Query("select b.name from Beer b where b.name in :names")
+    Set<String> findExistingNames(@Param("names") Collection<String> names);
+
+    List<Beer> findByNameIn(Collection<String> names);
+
+    @Query("select b.type as type, b.brand as brand, count(b) as skus, coalesce(sum(b.quantity), 0) as quantity, " +
+            "coalesce(sum(b.max), 0) as capacity, coalesce(sum(case when b.quantity = 0 then 1 else 0 end), 0) as skusAtZero " +
+            "from Beer b where b.shards = 1 group by b.type, b.brand")
+    List<InventoryTotal> sumByTypeAndBrand();
+
+    @Query("select b.type as type, b.brand as brand, b.max as capacity, coalesce(sum(s.quantity), 0) as quantity " +
+            "from Beer b, BeerStockShard s where s.beerId = b.id and b.shards > 1 group by b.id, b.type, b.brand, b.max")
+    List<ShardedQuantity> sumShardedQuantities();
+
+    interface InventoryTotal {
+        BeerType getType();
+
+        String getBrand();
+
+        long getSkus();
+
+        long getQuantity();
+
+        long getCapacity();
+
+        long getSkusAtZero();
+    }
+
+    interface ShardedQuantity {
+        BeerType getType();
+
+        String getBrand();
+
+        long getCapacity();
+
+        long getQuantity();
+    }
 }
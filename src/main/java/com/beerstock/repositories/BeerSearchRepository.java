@@ -0,0 +1,10 @@
+package com.beerstock.repositories;
+
+import com.beerstock.entities.Beer;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface BeerSearchRepository {
+    List<Beer> search(Specification<Beer> specification, int limit);
+}
@@ -0,0 +1,27 @@
+package com.beerstock.repositories;
+
+import com.beerstock.entities.Beer;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+class BeerSearchRepositoryImpl implements BeerSearchRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Beer> search(Specification<Beer> specification, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Beer> query = builder.createQuery(Beer.class);
+        Root<Beer> root = query.from(Beer.class);
+        query.select(root)
+                .where(specification.toPredicate(root, query, builder))
+                .orderBy(builder.asc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
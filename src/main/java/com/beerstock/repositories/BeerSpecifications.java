@@ -0,0 +1,59 @@
+package com.beerstock.repositories;
+
+import com.beerstock.dtos.BeerSearchDTO;
+import com.beerstock.entities.Beer;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search predicates on {@link Beer}, shaped to hit the indexes declared on the entity: equality on
+ * brand and type first, then a range on quantity or max.
+ */
+public final class BeerSpecifications {
+    private static final char LIKE_ESCAPE = '\\';
+
+    private BeerSpecifications() {
+    }
+
+    public static Specification<Beer> matching(BeerSearchDTO search) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (search.getBrand() != null) predicates.add(builder.equal(root.get("brand"), search.getBrand()));
+            if (search.getType() != null) predicates.add(builder.equal(root.get("type"), search.getType()));
+            if (search.getName() != null) {
+                predicates.add(builder.like(root.<String>get("name"), escapeLike(search.getName()) + "%", LIKE_ESCAPE));
+            }
+            addRange(predicates, builder, root.<Integer>get("max"), search.getMinMax(), search.getMaxMax());
+            if (search.getAfter() != null) predicates.add(builder.greaterThan(root.<Long>get("id"), search.getAfter()));
+            return builder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<Beer> quantityBetween(Integer min, Integer max) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(builder.equal(root.get("shards"), 1));
+            addRange(predicates, builder, root.<Integer>get("quantity"), min, max);
+            return builder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<Beer> sharded() {
+        return (root, query, builder) -> builder.greaterThan(root.<Integer>get("shards"), 1);
+    }
+
+    private static void addRange(List<Predicate> predicates, CriteriaBuilder builder,
+                                 Expression<Integer> value, Integer min, Integer max) {
+        if (min != null) predicates.add(builder.greaterThanOrEqualTo(value, min));
+        if (max != null) predicates.add(builder.lessThanOrEqualTo(value, max));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
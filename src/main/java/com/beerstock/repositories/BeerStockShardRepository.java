@@ -0,0 +1,34 @@
+package com.beerstock.repositories;
+
+import com.beerstock.entities.BeerStockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+public interface BeerStockShardRepository extends JpaRepository<BeerStockShard, Long> {
+    @Query("select coalesce(sum(s.quantity), 0) from BeerStockShard s where s.beerId = :beerId")
+    long sumQuantity(@Param("beerId") Long beerId);
+
+    @Query("select coalesce(sum(s.quantity), 0) from BeerStockShard s")
+    long sumQuantity();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<BeerStockShard> findByBeerIdOrderByShard(Long beerId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BeerStockShard s set s.quantity = s.quantity + :delta " +
+            "where s.beerId = :beerId and s.shard = :shard and s.quantity + :delta between 0 and s.capacity")
+    int adjustQuantity(@Param("beerId") Long beerId, @Param("shard") int shard, @Param("delta") int delta);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from BeerStockShard s where s.beerId = :beerId")
+    void deleteByBeerId(@Param("beerId") Long beerId);
+}
@@ -0,0 +1,27 @@
+package com.beerstock.repositories;
+
+import com.beerstock.entities.BeerRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBeerRepository extends R2dbcRepository<BeerRow, Long> {
+    Mono<BeerRow> findByName(String name);
+
+    Mono<Boolean> existsByName(String name);
+
+    @Query("select * from beer order by id")
+    Flux<BeerRow> streamAll();
+
+    @Modifying
+    @Query("update beer set quantity = quantity + :delta, version = version + 1 " +
+            "where id = :id and quantity + :delta between reserved + located and max + located - allotted")
+    Mono<Integer> adjustQuantity(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("delete from beer where id = :id")
+    Mono<Integer> deleteBeer(@Param("id") Long id);
+}
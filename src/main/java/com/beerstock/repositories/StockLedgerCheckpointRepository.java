@@ -0,0 +1,7 @@
+package com.beerstock.repositories;
+
+import com.beerstock.entities.StockLedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StockLedgerCheckpointRepository extends JpaRepository<StockLedgerCheckpoint, String> {
+}
@@ -0,0 +1,7 @@
+package com.beerstock.repositories;
+
+import com.beerstock.entities.StockMovementArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StockMovementArchiveRepository extends JpaRepository<StockMovementArchive, Long> {
+}
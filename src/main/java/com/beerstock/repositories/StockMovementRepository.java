@@ -0,0 +1,43 @@
+package com.beerstock.repositories;
+
+import com.beerstock.entities.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+    @Query("select coalesce(max(m.id), 0) from StockMovement m")
+    long maxId();
+
+    @Query("select m.beerId as beerId, sum(m.delta) as delta, max(m.occurredAt) as occurredAt from StockMovement m " +
+            "where m.id > :after and m.id <= :upTo group by m.beerId")
+    List<MovementTotal> sumDeltas(@Param("after") long after, @Param("upTo") long upTo);
+
+    @Query("select coalesce(sum(m.delta), 0) from StockMovement m " +
+            "where m.beerId = :beerId and m.id > :after and m.occurredAt <= :at")
+    long sumDeltas(@Param("beerId") Long beerId, @Param("after") long after, @Param("at") Instant at);
+
+    boolean existsByBeerIdAndOccurredAtLessThanEqual(Long beerId, Instant at);
+
+    @Modifying
+    @Query("insert into StockMovementArchive (id, beerId, type, delta, occurredAt) " +
+            "select m.id, m.beerId, m.type, m.delta, m.occurredAt from StockMovement m " +
+            "where m.id <= :upTo and m.occurredAt < :before")
+    int archive(@Param("upTo") long upTo, @Param("before") Instant before);
+
+    @Modifying
+    @Query("delete from StockMovement m where m.id <= :upTo and m.occurredAt < :before")
+    int deleteArchived(@Param("upTo") long upTo, @Param("before") Instant before);
+
+    interface MovementTotal {
+        Long getBeerId();
+
+        long getDelta();
+
+        Instant getOccurredAt();
+    }
+}
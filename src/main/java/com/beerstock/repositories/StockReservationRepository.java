@@ -0,0 +1,25 @@
+package com.beerstock.repositories;
+
+import com.beerstock.entities.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from StockReservation r where r.id = :id")
+    int deleteReservation(@Param("id") String id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from StockReservation r where r.id = :id and r.expiresAt > :now")
+    int deleteUnexpired(@Param("id") String id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from StockReservation r where r.beerId = :beerId")
+    void deleteByBeerId(@Param("beerId") Long beerId);
+}
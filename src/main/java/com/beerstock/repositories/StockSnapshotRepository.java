@@ -0,0 +1,17 @@
+package com.beerstock.repositories;
+
+import com.beerstock.entities.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+    @Query("select coalesce(max(s.movementId), 0) from StockSnapshot s")
+    long maxMovementId();
+
+    Optional<StockSnapshot> findFirstByBeerIdOrderByMovementIdDesc(Long beerId);
+
+    Optional<StockSnapshot> findFirstByBeerIdAndTakenAtLessThanEqualOrderByMovementIdDesc(Long beerId, Instant at);
+}
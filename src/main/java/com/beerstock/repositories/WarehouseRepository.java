@@ -0,0 +1,35 @@
+package com.beerstock.repositories;
+
+import com.beerstock.config.CacheConfig;
+import com.beerstock.entities.Warehouse;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+    @Cacheable(cacheNames = CacheConfig.WAREHOUSES_BY_CODE, unless = "#result == null")
+    Optional<Warehouse> findByCode(String code);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES_BY_CODE, allEntries = true)
+    <S extends Warehouse> S save(S warehouse);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES_BY_CODE, allEntries = true)
+    <S extends Warehouse> List<S> saveAll(Iterable<S> warehouses);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES_BY_CODE, allEntries = true)
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES_BY_CODE, allEntries = true)
+    void delete(Warehouse warehouse);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES_BY_CODE, allEntries = true)
+    void deleteAll();
+}
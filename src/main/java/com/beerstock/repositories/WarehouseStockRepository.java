@@ -0,0 +1,34 @@
+package com.beerstock.repositories;
+
+import com.beerstock.entities.WarehouseStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+/**
+ * Stock of a beer per warehouse.
+ */
+public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, Long> {
+    List<WarehouseStock> findByBeerId(Long beerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from WarehouseStock s where s.beerId = :beerId")
+    List<WarehouseStock> findByBeerIdForUpdate(@Param("beerId") Long beerId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update WarehouseStock s set s.quantity = s.quantity + :delta " +
+            "where s.warehouseId = :warehouseId and s.beerId = :beerId and s.quantity + :delta between 0 and s.capacity")
+    int adjustQuantity(@Param("warehouseId") Long warehouseId, @Param("beerId") Long beerId, @Param("delta") int delta);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from WarehouseStock s where s.beerId = :beerId")
+    void deleteByBeerId(@Param("beerId") Long beerId);
+}
@@ -0,0 +1,53 @@
+package com.beerstock.services;
+
+import com.beerstock.config.CacheConfig;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.entities.Beer;
+import com.beerstock.enums.StockMovementType;
+import com.beerstock.exceptions.BeerNotFoundException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+/**
+ * Programmatic access to the beer caches, for the writes whose cache key is only known once the
+ * beer has been loaded. Beers cached by id are detached and must not be modified.
+ */
+@Component
+public class BeerCache {
+    private final Cache beersByName;
+    private final Cache beersById;
+
+    public BeerCache(CacheManager cacheManager) {
+        this.beersByName = Objects.requireNonNull(cacheManager.getCache(CacheConfig.BEERS_BY_NAME));
+        this.beersById = Objects.requireNonNull(cacheManager.getCache(CacheConfig.BEERS_BY_ID));
+    }
+
+    public Beer findById(Long id, Callable<Beer> loader) throws BeerNotFoundException {
+        try {
+            return beersById.get(id, loader);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof BeerNotFoundException) throw (BeerNotFoundException) e.getCause();
+            throw e;
+        }
+    }
+
+    public void put(BeerDTO beerDTO) {
+        beersByName.put(beerDTO.getName(), beerDTO);
+    }
+
+    public void evict(String name) {
+        beersByName.evict(name);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (event.getMovement() == StockMovementType.CREATED) put(event.getBeer());
+        else evict(event.getBeer().getName());
+        beersById.evict(event.getBeer().getId());
+    }
+}
@@ -0,0 +1,230 @@
+package com.beerstock.services;
+
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.ImportErrorDTO;
+import com.beerstock.dtos.ImportReportDTO;
+import com.beerstock.entities.Beer;
+import com.beerstock.enums.BeerType;
+import com.beerstock.mappers.BeerMapper;
+import com.beerstock.repositories.BeerRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a catalog streamed as CSV or NDJSON.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class BeerCatalogImporter {
+    public static final int CHUNK_SIZE = 500;
+    public static final int MAX_REPORTED_ERRORS = 1000;
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+    private static final String INSERT_SQL = "insert into beer (name, brand, quantity, max, type, reorder_point, version, shards, reserved, located, allotted) values (?, ?, ?, ?, ?, ?, 0, 1, 0, 0, 0)";
+
+    private final BeerRepository beerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectReader beerReader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    public BeerCatalogImporter(BeerRepository beerRepository, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, Validator validator,
+                               ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher) {
+        this.beerRepository = beerRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.beerReader = objectMapper.readerFor(BeerDTO.class);
+        this.eventPublisher = eventPublisher;
+    }
+
+    public ImportReportDTO importCsv(InputStream input) throws IOException {
+        ImportReportDTO report = new ImportReportDTO();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) return report;
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = BeerCsv.parseLine(header.startsWith(BYTE_ORDER_MARK) ? header.substring(1) : header);
+            for (int i = 0; i < names.size(); i++) columns.put(names.get(i).trim(), i);
+            for (String column : List.of("name", "brand", "quantity", "max", "type")) {
+                if (!columns.containsKey(column)) {
+                    reportError(report, 1, String.format("Missing column %s.", column));
+                    return report;
+                }
+            }
+
+            Chunk chunk = new Chunk();
+            long lineNumber = 1;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                try {
+                    add(chunk, report, lineNumber, fromCsv(BeerCsv.parseLine(line), columns));
+                } catch (IllegalArgumentException e) {
+                    reportError(report, lineNumber, e.getMessage());
+                }
+            }
+            flush(chunk, report);
+        }
+        return report;
+    }
+
+    public ImportReportDTO importNdjson(InputStream input) throws IOException {
+        ImportReportDTO report = new ImportReportDTO();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Chunk chunk = new Chunk();
+            long lineNumber = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                try {
+                    add(chunk, report, lineNumber, beerReader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    reportError(report, lineNumber, e.getOriginalMessage());
+                }
+            }
+            flush(chunk, report);
+        }
+        return report;
+    }
+
+    private BeerDTO fromCsv(List<String> fields, Map<String, Integer> columns) {
+        String reorderPoint = field(fields, columns, "reorderPoint");
+        return BeerDTO.builder()
+                .name(field(fields, columns, "name"))
+                .brand(field(fields, columns, "brand"))
+                .quantity(integer(field(fields, columns, "quantity"), "quantity"))
+                .max(integer(field(fields, columns, "max"), "max"))
+                .type(type(field(fields, columns, "type")))
+                .reorderPoint(reorderPoint == null || reorderPoint.isBlank() ? null : integer(reorderPoint, "reorderPoint"))
+                .build();
+    }
+
+    private void add(Chunk chunk, ImportReportDTO report, long lineNumber, BeerDTO beerDTO) {
+        Set<ConstraintViolation<BeerDTO>> violations = validator.validate(beerDTO);
+        if (!violations.isEmpty()) {
+            reportError(report, lineNumber, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        } else if (beerDTO.getQuantity() < 0 || beerDTO.getQuantity() > beerDTO.getMax()) {
+            reportError(report, lineNumber, "quantity must be between 0 and max");
+        } else if (chunk.beers.containsKey(beerDTO.getName())) {
+            reportDuplicate(report, lineNumber, beerDTO.getName());
+        } else {
+            chunk.beers.put(beerDTO.getName(), beerDTO);
+            chunk.lines.put(beerDTO.getName(), lineNumber);
+            if (chunk.beers.size() == CHUNK_SIZE) flush(chunk, report);
+        }
+    }
+
+    private void flush(Chunk chunk, ImportReportDTO report) {
+        if (chunk.beers.isEmpty()) return;
+        List<Beer> inserted = null;
+        DataIntegrityViolationException failure = null;
+        while (inserted == null) {
+            Set<String> existing = beerRepository.findExistingNames(chunk.beers.keySet());
+            existing.forEach(name -> reportDuplicate(report, chunk.lines.get(name), name));
+            chunk.beers.keySet().removeAll(existing);
+            if (chunk.beers.isEmpty()) break;
+            if (failure != null && existing.isEmpty()) {
+                String message = failure.getMostSpecificCause().getMessage();
+                chunk.lines.forEach((name, lineNumber) -> {
+                    if (chunk.beers.containsKey(name)) reportError(report, lineNumber, message);
+                });
+                break;
+            }
+            try {
+                inserted = transactionTemplate.execute(status -> insert(chunk.beers.values()));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Could not insert an imported chunk, checking its names again", e);
+                failure = e;
+            }
+        }
+        if (inserted != null) afterInsert(inserted, report);
+        chunk.beers.clear();
+        chunk.lines.clear();
+    }
+
+    private List<Beer> insert(Collection<BeerDTO> beers) {
+        List<Object[]> rows = beers.stream()
+                .map(beer -> new Object[]{beer.getName(), beer.getBrand(), beer.getQuantity(), beer.getMax(), beer.getType().name(), beer.getReorderPoint()})
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        return beerRepository.findByNameIn(beers.stream().map(BeerDTO::getName).collect(Collectors.toList()));
+    }
+
+    private void afterInsert(List<Beer> inserted, ImportReportDTO report) {
+        inserted.forEach(beer -> eventPublisher.publishEvent(BeerChangedEvent.created(beerMapper.toDTO(beer))));
+        report.setImported(report.getImported() + inserted.size());
+    }
+
+    private void reportDuplicate(ImportReportDTO report, long lineNumber, String name) {
+        report.setDuplicates(report.getDuplicates() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new ImportErrorDTO(lineNumber, String.format("Beer with name %s already registered.", name)));
+        }
+    }
+
+    private void reportError(ImportReportDTO report, long lineNumber, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) report.getErrors().add(new ImportErrorDTO(lineNumber, message));
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private static Integer integer(String value, String column) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("%s must be a number", column));
+        }
+    }
+
+    private static BeerType type(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return BeerType.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("type must be one of %s", Arrays.toString(BeerType.values())));
+        }
+    }
+
+    /**
+     * Beers of the chunk by name, with the line each came from.
+     */
+    private static final class Chunk {
+        private final Map<String, BeerDTO> beers = new LinkedHashMap<>();
+        private final Map<String, Long> lines = new HashMap<>();
+    }
+}
@@ -0,0 +1,28 @@
+package com.beerstock.services;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Table-level change counter of the beer catalog, bumped after every committed write.
+ */
+@Component
+public class BeerCatalogVersion {
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong changes = new AtomicLong();
+
+    public String current() {
+        return epoch + "-" + changes.get();
+    }
+
+    public void bump() {
+        changes.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        bump();
+    }
+}
@@ -0,0 +1,31 @@
+package com.beerstock.services;
+
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.enums.StockMovementType;
+import lombok.Value;
+
+/**
+ * Published once per changed beer, after the write commits.
+ */
+@Value
+public class BeerChangedEvent {
+    BeerDTO beer;
+    StockMovementType movement;
+    int delta;
+
+    public static BeerChangedEvent created(BeerDTO beerDTO) {
+        return new BeerChangedEvent(beerDTO, StockMovementType.CREATED, beerDTO.getQuantity());
+    }
+
+    public static BeerChangedEvent deleted(BeerDTO beerDTO) {
+        return new BeerChangedEvent(beerDTO, StockMovementType.DELETED, -beerDTO.getQuantity());
+    }
+
+    public static BeerChangedEvent adjusted(BeerDTO beerDTO, int delta) {
+        return new BeerChangedEvent(beerDTO, delta >= 0 ? StockMovementType.INCREMENTED : StockMovementType.DECREMENTED, delta);
+    }
+
+    public static BeerChangedEvent updated(BeerDTO beerDTO) {
+        return new BeerChangedEvent(beerDTO, null, 0);
+    }
+}
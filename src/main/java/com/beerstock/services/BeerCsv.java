@@ -0,0 +1,61 @@
+package com.beerstock.services;
+
+import com.beerstock.dtos.BeerDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV layout of the catalog import and export: a header line, then one beer per line.
+ */
+public final class BeerCsv {
+    public static final String HEADER = "id,name,brand,quantity,max,type,reorderPoint";
+
+    private BeerCsv() {
+    }
+
+    public static String toLine(BeerDTO beerDTO) {
+        return String.join(",",
+                String.valueOf(beerDTO.getId()),
+                quote(beerDTO.getName()),
+                quote(beerDTO.getBrand()),
+                String.valueOf(beerDTO.getQuantity()),
+                String.valueOf(beerDTO.getMax()),
+                beerDTO.getType().name(),
+                beerDTO.getReorderPoint() == null ? "" : String.valueOf(beerDTO.getReorderPoint()));
+    }
+
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quoted field.");
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,448 @@
+package com.beerstock.services;
+
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.BeerSuggestionDTO;
+import com.beerstock.entities.Beer;
+import com.beerstock.enums.StockMovementType;
+import com.beerstock.repositories.BeerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory autocomplete over beer names and brands.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class BeerNameIndex {
+    public static final int MAX_SUGGESTIONS = 50;
+
+    private final BeerRepository beerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Trie trie = new Trie();
+    private final LongIntMap slotsById = new LongIntMap();
+    private long[] slotIds = new long[1024];
+    private String[] slotNames = new String[1024];
+    private String[] slotBrands = new String[1024];
+    private int slotCount;
+    private int[] freeSlots = new int[64];
+    private int freeSlotCount;
+
+    public BeerNameIndex(BeerRepository beerRepository, TransactionTemplate transactionTemplate, EntityManager entityManager) {
+        this.beerRepository = beerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            trie = new Trie();
+            slotsById.clear();
+            Arrays.fill(slotNames, null);
+            Arrays.fill(slotBrands, null);
+            slotCount = 0;
+            freeSlotCount = 0;
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Beer> beers = beerRepository.streamAll()) {
+                    beers.forEach(beer -> {
+                        addLocked(beer.getId(), beer.getName(), beer.getBrand());
+                        entityManager.detach(beer);
+                    });
+                }
+            });
+            log.info("Indexed {} beer names in {} trie nodes", slotsById.size(), trie.nodeCount);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (event.getMovement() == StockMovementType.CREATED) add(event.getBeer());
+        else if (event.getMovement() == StockMovementType.DELETED) remove(event.getBeer().getId());
+    }
+
+    public void add(BeerDTO beerDTO) {
+        lock.writeLock().lock();
+        try {
+            addLocked(beerDTO.getId(), beerDTO.getName(), beerDTO.getBrand());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotsById.remove(id);
+            if (slot < 0) return;
+            for (String key : keys(slotNames[slot], slotBrands[slot])) trie.remove(key, slot);
+            slotNames[slot] = null;
+            slotBrands[slot] = null;
+            if (freeSlotCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+            freeSlots[freeSlotCount++] = slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<BeerSuggestionDTO> suggest(String query, int limit) {
+        String key = normalize(query);
+        int count = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        if (key.isEmpty()) return List.of();
+
+        int[] slots = new int[count];
+        int[] distances = new int[count];
+        lock.readLock().lock();
+        try {
+            int found = trie.search(key, maxDistance(key), count, slots, distances);
+            List<BeerSuggestionDTO> suggestions = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                int slot = slots[i];
+                suggestions.add(new BeerSuggestionDTO(slotIds[slot], slotNames[slot], slotBrands[slot], distances[i]));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(Long id, String name, String brand) {
+        if (slotsById.get(id) >= 0) return;
+        int slot = freeSlotCount > 0 ? freeSlots[--freeSlotCount] : slotCount++;
+        if (slot == slotIds.length) {
+            slotIds = Arrays.copyOf(slotIds, slot * 2);
+            slotNames = Arrays.copyOf(slotNames, slot * 2);
+            slotBrands = Arrays.copyOf(slotBrands, slot * 2);
+        }
+        slotIds[slot] = id;
+        slotNames[slot] = name;
+        slotBrands[slot] = brand;
+        slotsById.put(id, slot);
+        for (String key : keys(name, brand)) trie.add(key, slot);
+    }
+
+    private static int maxDistance(String key) {
+        return key.length() < 4 ? 0 : key.length() < 8 ? 1 : 2;
+    }
+
+    private static Set<String> keys(String name, String brand) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String value : new String[]{normalize(name), normalize(brand)}) {
+            for (int start = 0; start < value.length(); start = value.indexOf(' ', start) + 1) {
+                keys.add(value.substring(start));
+                if (value.indexOf(' ', start) < 0) break;
+            }
+        }
+        return keys;
+    }
+
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) normalized.append(' ');
+                normalized.append(Character.toLowerCase(c));
+                pendingSpace = false;
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Character trie in parallel arrays.
+     */
+    private static final class Trie {
+        private static final int NO_KEY = Integer.MAX_VALUE;
+
+        private char[] labels = new char[1024];
+        private int[] firstChild = new int[1024];
+        private int[] nextSibling = new int[1024];
+        private int[] firstPosting = new int[1024];
+        private int[] shallowest = new int[1024];
+        private int nodeCount = 1;
+
+        private int[] postingSlots = new int[1024];
+        private int[] postingNext = new int[1024];
+        private int postingCount = 1;
+        private int freePosting;
+
+        private Trie() {
+            shallowest[0] = NO_KEY;
+        }
+
+        private void add(String key, int slot) {
+            int node = 0;
+            shallowest[0] = Math.min(shallowest[0], key.length());
+            for (int i = 0; i < key.length(); i++) {
+                int child = child(node, key.charAt(i));
+                node = child != 0 ? child : newNode(node, key.charAt(i));
+                shallowest[node] = Math.min(shallowest[node], key.length());
+            }
+            int posting = newPosting();
+            postingSlots[posting] = slot;
+            postingNext[posting] = firstPosting[node];
+            firstPosting[node] = posting;
+        }
+
+        private void remove(String key, int slot) {
+            int[] path = new int[key.length() + 1];
+            for (int i = 0; i < key.length(); i++) {
+                path[i + 1] = child(path[i], key.charAt(i));
+                if (path[i + 1] == 0) return;
+            }
+            int node = path[key.length()];
+            for (int previous = 0, posting = firstPosting[node]; posting != 0; previous = posting, posting = postingNext[posting]) {
+                if (postingSlots[posting] != slot) continue;
+                if (previous == 0) firstPosting[node] = postingNext[posting];
+                else postingNext[previous] = postingNext[posting];
+                postingNext[posting] = freePosting;
+                freePosting = posting;
+                break;
+            }
+            for (int depth = key.length(); depth >= 0; depth--) {
+                node = path[depth];
+                int shortest = firstPosting[node] != 0 ? depth : NO_KEY;
+                for (int child = firstChild[node]; child != 0; child = nextSibling[child]) shortest = Math.min(shortest, shallowest[child]);
+                if (shallowest[node] == shortest) return;
+                shallowest[node] = shortest;
+            }
+        }
+
+        private int search(String key, int maxDistance, int limit, int[] slots, int[] distances) {
+            int[][] rows = new int[key.length() + maxDistance + 1][key.length() + 1];
+            for (int i = 0; i <= key.length(); i++) rows[0][i] = i;
+            IntList accepted = new IntList();
+            IntList acceptedDistances = new IntList();
+            if (key.length() <= maxDistance) {
+                accepted.add(0);
+                acceptedDistances.add(key.length());
+            } else {
+                walk(0, 0, key, maxDistance, rows, accepted, acceptedDistances);
+            }
+
+            int found = 0;
+            IntList queue = new IntList();
+            for (int distance = 0; distance <= maxDistance && found < limit; distance++) {
+                for (int a = 0; a < accepted.size && found < limit; a++) {
+                    if (acceptedDistances.values[a] != distance) continue;
+                    queue.size = 0;
+                    offer(queue, accepted.values[a]);
+                    while (queue.size > 0 && found < limit) {
+                        int node = poll(queue);
+                        for (int posting = firstPosting[node]; posting != 0 && found < limit; posting = postingNext[posting]) {
+                            if (contains(slots, found, postingSlots[posting])) continue;
+                            slots[found] = postingSlots[posting];
+                            distances[found++] = distance;
+                        }
+                        for (int child = firstChild[node]; child != 0; child = nextSibling[child]) offer(queue, child);
+                    }
+                }
+            }
+            return found;
+        }
+
+        /**
+         * Adds a node to a binary heap ordered by the shortest key below it, so the walk reaches
+         * the shortest completions first and stops once it has enough.
+         */
+        private void offer(IntList heap, int node) {
+            if (shallowest[node] == NO_KEY) return;
+            heap.add(node);
+            for (int i = heap.size - 1; i > 0; ) {
+                int parent = (i - 1) / 2;
+                if (shallowest[heap.values[parent]] <= shallowest[node]) break;
+                heap.values[i] = heap.values[parent];
+                i = parent;
+                heap.values[i] = node;
+            }
+        }
+
+        private int poll(IntList heap) {
+            int head = heap.values[0];
+            int last = heap.values[--heap.size];
+            int i = 0;
+            for (int child = 1; child < heap.size; child = 2 * i + 1) {
+                if (child + 1 < heap.size && shallowest[heap.values[child + 1]] < shallowest[heap.values[child]]) child++;
+                if (shallowest[last] <= shallowest[heap.values[child]]) break;
+                heap.values[i] = heap.values[child];
+                i = child;
+            }
+            if (heap.size > 0) heap.values[i] = last;
+            return head;
+        }
+
+        private void walk(int node, int depth, String key, int maxDistance, int[][] rows, IntList accepted, IntList acceptedDistances) {
+            if (depth + 1 >= rows.length) return;
+            int[] previous = rows[depth];
+            int[] row = rows[depth + 1];
+            for (int child = firstChild[node]; child != 0; child = nextSibling[child]) {
+                row[0] = depth + 1;
+                int best = row[0];
+                for (int i = 1; i <= key.length(); i++) {
+                    int substitution = previous[i - 1] + (key.charAt(i - 1) == labels[child] ? 0 : 1);
+                    row[i] = Math.min(substitution, Math.min(previous[i], row[i - 1]) + 1);
+                    best = Math.min(best, row[i]);
+                }
+                int distance = row[key.length()];
+                if (distance <= maxDistance) {
+                    accepted.add(child);
+                    acceptedDistances.add(distance);
+                    if (distance == 0) continue;
+                }
+                if (best <= maxDistance) walk(child, depth + 1, key, maxDistance, rows, accepted, acceptedDistances);
+            }
+        }
+
+        private int child(int node, char label) {
+            for (int child = firstChild[node]; child != 0; child = nextSibling[child]) {
+                if (labels[child] == label) return child;
+            }
+            return 0;
+        }
+
+        private int newNode(int parent, char label) {
+            if (nodeCount == labels.length) {
+                int capacity = nodeCount * 2;
+                labels = Arrays.copyOf(labels, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                firstPosting = Arrays.copyOf(firstPosting, capacity);
+                shallowest = Arrays.copyOf(shallowest, capacity);
+            }
+            int node = nodeCount++;
+            labels[node] = label;
+            shallowest[node] = NO_KEY;
+            nextSibling[node] = firstChild[parent];
+            firstChild[parent] = node;
+            return node;
+        }
+
+        private int newPosting() {
+            if (freePosting != 0) {
+                int posting = freePosting;
+                freePosting = postingNext[posting];
+                return posting;
+            }
+            if (postingCount == postingSlots.length) {
+                postingSlots = Arrays.copyOf(postingSlots, postingCount * 2);
+                postingNext = Arrays.copyOf(postingNext, postingCount * 2);
+            }
+            return postingCount++;
+        }
+
+        private static boolean contains(int[] values, int size, int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Open-addressing map from beer id to slot, without boxing.
+     */
+    private static final class LongIntMap {
+        private long[] keys = new long[1024];
+        private int[] values = new int[1024];
+        private int size;
+
+        private int get(long key) {
+            for (int i = index(key); keys[i] != 0; i = (i + 1) & (keys.length - 1)) {
+                if (keys[i] == key) return values[i];
+            }
+            return -1;
+        }
+
+        private void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) resize();
+            int i = index(key);
+            while (keys[i] != 0 && keys[i] != key) i = (i + 1) & (keys.length - 1);
+            if (keys[i] == 0) size++;
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private int remove(long key) {
+            int mask = keys.length - 1;
+            int i = index(key);
+            while (keys[i] != key) {
+                if (keys[i] == 0) return -1;
+                i = (i + 1) & mask;
+            }
+            int value = values[i];
+            for (int next = (i + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+                int home = index(keys[next]);
+                if (((next - home) & mask) >= ((next - i) & mask)) {
+                    keys[i] = keys[next];
+                    values[i] = values[next];
+                    i = next;
+                }
+            }
+            keys[i] = 0;
+            size--;
+            return value;
+        }
+
+        private void clear() {
+            Arrays.fill(keys, 0);
+            size = 0;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) put(oldKeys[i], oldValues[i]);
+            }
+        }
+
+        private int index(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & (keys.length - 1);
+        }
+    }
+}
@@ -1,69 +1,241 @@
 package com.beerstock.services;
 
+import com.beerstock.config.CacheConfig;
 import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.BeerPageDTO;
+import com.beerstock.dtos.BeerSearchDTO;
+import com.beerstock.dtos.BeerSuggestionDTO;
+import com.beerstock.dtos.InventoryStatsDTO;
+import com.beerstock.dtos.ReservationDTO;
+import com.beerstock.dtos.StockLevelDTO;
 import com.beerstock.entities.Beer;
 import com.beerstock.exceptions.BeerAlreadyRegisteredException;
 import com.beerstock.exceptions.BeerNegativeQuantityException;
 import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.exceptions.BeerReservationNotSupportedException;
+import com.beerstock.exceptions.BeerShardingNotSupportedException;
 import com.beerstock.exceptions.BeerStockExceededException;
+import com.beerstock.exceptions.BeerStockUnavailableException;
+import com.beerstock.exceptions.ReservationNotFoundException;
 import com.beerstock.mappers.BeerMapper;
 import com.beerstock.repositories.BeerRepository;
+import com.beerstock.repositories.BeerSpecifications;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Profile("!reactive")
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerService {
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_SEARCH_SIZE = 100;
+
     private final BeerRepository beerRepository;
+    private final ObjectProvider<StockLedger> stockLedger;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BeerCatalogVersion catalogVersion;
+    private final StockShards stockShards;
+    private final StockJournal stockJournal;
+    private final BeerNameIndex nameIndex;
+    private final InventoryStatistics inventoryStats;
+    private final WarehouseService warehouses;
+    private final StockReservations stockReservations;
+    private final SingleFlight singleFlight;
+    private final BeerCache beerCache;
     private final BeerMapper beerMapper = BeerMapper.INSTANCE;
 
     public BeerDTO create(BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
         verifyIfIsAlreadyRegistered(beerDTO.getName());
         Beer beer = beerMapper.toModel(beerDTO);
         Beer savedBeer = beerRepository.save(beer);
-        return beerMapper.toDTO(savedBeer);
+        BeerDTO savedBeerDTO = beerMapper.toDTO(savedBeer);
+        eventPublisher.publishEvent(BeerChangedEvent.created(savedBeerDTO));
+        return savedBeerDTO;
     }
 
+    /**
+     * Served from the {@link CacheConfig#BEERS_BY_NAME} cache. Misses on the same name at the same
+     * catalog version share one database read.
+     */
+    @Cacheable(cacheNames = CacheConfig.BEERS_BY_NAME, sync = true)
     public BeerDTO findByName(String name) throws BeerNotFoundException {
-        return beerRepository.findByName(name)
-                .map(beerMapper::toDTO)
+        return singleFlight.execute("findByName", List.of(name, catalogVersion.current()),
+                        () -> beerRepository.findByName(name).map(this::toDTO))
                 .orElseThrow(() -> new BeerNotFoundException(name));
     }
 
+    public String catalogVersion() {
+        return catalogVersion.current();
+    }
+
     public List<BeerDTO> listAll() {
-        return beerRepository.findAll().stream().map(beerMapper::toDTO).collect(Collectors.toList());
+        return singleFlight.execute("listAll", catalogVersion.current(),
+                () -> beerRepository.findAll().stream().map(this::toDTO).collect(Collectors.toUnmodifiableList()));
+    }
+
+    public BeerPageDTO listPage(Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Beer> beers = beerRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, PageRequest.of(0, pageSize + 1));
+
+        boolean hasNextPage = beers.size() > pageSize;
+        List<BeerDTO> page = beers.stream().limit(pageSize).map(this::toDTO).collect(Collectors.toList());
+        Long nextCursor = hasNextPage ? page.get(page.size() - 1).getId() : null;
+        return new BeerPageDTO(page, nextCursor);
+    }
+
+    public BeerPageDTO search(BeerSearchDTO search) {
+        int pageSize = Math.max(1, Math.min(search.getSize() == null ? DEFAULT_SEARCH_SIZE : search.getSize(), MAX_PAGE_SIZE));
+        Specification<Beer> matching = BeerSpecifications.matching(search);
+        List<Beer> beers = search.getMinQuantity() == null && search.getMaxQuantity() == null
+                ? beerRepository.search(matching, pageSize + 1)
+                : Stream.concat(
+                        beerRepository.search(matching.and(BeerSpecifications.quantityBetween(search.getMinQuantity(), search.getMaxQuantity())), pageSize + 1).stream(),
+                        beerRepository.search(matching.and(BeerSpecifications.sharded()), pageSize + 1).stream())
+                .sorted(Comparator.comparing(Beer::getId))
+                .limit(pageSize + 1)
+                .collect(Collectors.toList());
+
+        boolean hasNextPage = beers.size() > pageSize;
+        List<Beer> pageBeers = beers.subList(0, Math.min(pageSize, beers.size()));
+        List<BeerDTO> page = pageBeers.stream()
+                .map(this::toDTO)
+                .filter(beerDTO -> isWithin(beerDTO.getQuantity(), search.getMinQuantity(), search.getMaxQuantity()))
+                .collect(Collectors.toList());
+        Long nextCursor = hasNextPage ? pageBeers.get(pageBeers.size() - 1).getId() : null;
+        return new BeerPageDTO(page, nextCursor);
     }
 
+    public InventoryStatsDTO statistics() {
+        return inventoryStats.statistics();
+    }
+
+    public List<BeerSuggestionDTO> suggest(String query, int limit) {
+        return nameIndex.suggest(query, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<BeerDTO> consumer) {
+        try (Stream<Beer> beers = beerRepository.streamAll()) {
+            beers.forEach(beer -> {
+                consumer.accept(toDTO(beer));
+                entityManager.detach(beer);
+            });
+        }
+    }
+
+    @Transactional
     public void deleteById(Long id) throws BeerNotFoundException {
-        Beer beer = verifyIfExists(id);
-        beerRepository.delete(beer);
+        Beer beer = beerRepository.findByIdForUpdate(id).orElseThrow(() -> new BeerNotFoundException(id));
+        BeerDTO deletedBeerDTO = toDTO(beer);
+        beerRepository.deleteBeer(id);
+        if (beer.getShards() > 1) stockShards.delete(id);
+        warehouses.onBeerDeleted(id);
+        stockReservations.onBeerDeleted(id);
+        stockLedger.ifAvailable(ledger -> ledger.evict(id));
+        eventPublisher.publishEvent(BeerChangedEvent.deleted(deletedBeerDTO));
+    }
+
+    public StockLevelDTO stockAt(Long id, Instant at) throws BeerNotFoundException {
+        return stockJournal.quantityAt(id, at);
     }
 
     public BeerDTO increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
-        Beer beer = verifyIfExists(id);
+        StockLedger ledger = stockLedger.getIfAvailable();
+        BeerDTO beerDTO;
+        if (ledger != null) {
+            beerDTO = ledger.increment(id, quantityToIncrement);
+        } else {
+            if (!adjustQuantity(id, quantityToIncrement)) throw new BeerStockExceededException(id, quantityToIncrement);
+            beerDTO = toDTO(verifyIfExists(id));
+        }
+        eventPublisher.publishEvent(BeerChangedEvent.adjusted(beerDTO, quantityToIncrement));
+        return beerDTO;
+    }
 
-        int newBeerQuantity = beer.getQuantity() + quantityToIncrement;
-        if (newBeerQuantity > beer.getMax()) throw new BeerStockExceededException(id, quantityToIncrement);
+    public BeerDTO decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerNegativeQuantityException {
+        StockLedger ledger = stockLedger.getIfAvailable();
+        BeerDTO beerDTO;
+        if (ledger != null) {
+            beerDTO = ledger.decrement(id, quantityToDecrement);
+        } else {
+            if (!adjustQuantity(id, -quantityToDecrement)) throw new BeerNegativeQuantityException(id, quantityToDecrement);
+            beerDTO = toDTO(verifyIfExists(id));
+        }
+        eventPublisher.publishEvent(BeerChangedEvent.adjusted(beerDTO, -quantityToDecrement));
+        return beerDTO;
+    }
 
-        beer.setQuantity(newBeerQuantity);
-        Beer resultBeer = beerRepository.save(beer);
-        return beerMapper.toDTO(resultBeer);
+    public ReservationDTO reserve(Long id, int quantity, Duration ttl)
+            throws BeerNotFoundException, BeerReservationNotSupportedException, BeerStockUnavailableException {
+        if (stockLedger.getIfAvailable() != null) throw new BeerReservationNotSupportedException(id);
+        Beer beer = findCached(id);
+        if (beer.getShards() > 1) throw new BeerReservationNotSupportedException(id);
+        return stockReservations.reserve(id, quantity, ttl);
     }
 
-    public BeerDTO decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerNegativeQuantityException {
-        Beer beer = verifyIfExists(id);
+    public BeerDTO commitReservation(String reservationId) throws ReservationNotFoundException, BeerNotFoundException {
+        ReservationDTO reservation = stockReservations.commit(reservationId);
+        BeerDTO beerDTO = toDTO(verifyIfExists(reservation.getBeerId()));
+        eventPublisher.publishEvent(BeerChangedEvent.adjusted(beerDTO, -reservation.getQuantity()));
+        return beerDTO;
+    }
+
+    public void releaseReservation(String reservationId) throws ReservationNotFoundException {
+        stockReservations.release(reservationId);
+    }
+
+    public BeerDTO updateReorderPoint(Long id, Integer reorderPoint) throws BeerNotFoundException {
+        findCached(id);
+        beerRepository.updateReorderPoint(id, reorderPoint);
+        stockLedger.ifAvailable(ledger -> ledger.reorderPointChanged(id, reorderPoint));
+        BeerDTO beerDTO = toDTO(verifyIfExists(id));
+        eventPublisher.publishEvent(BeerChangedEvent.updated(beerDTO));
+        return beerDTO;
+    }
+
+    public BeerDTO shard(Long id, int shards) throws BeerNotFoundException, BeerShardingNotSupportedException {
+        if (stockLedger.getIfAvailable() != null) throw new BeerShardingNotSupportedException(id);
+        findCached(id);
+        warehouses.reclaim(id);
+        if (!stockShards.reshard(id, shards)) {
+            Beer beer = verifyIfExists(id);
+            throw new BeerShardingNotSupportedException(id, beer.getReserved() + beer.getAllotted());
+        }
+        BeerDTO beerDTO = toDTO(verifyIfExists(id));
+        eventPublisher.publishEvent(BeerChangedEvent.updated(beerDTO));
+        return beerDTO;
+    }
 
-        int newBeerQuantity = beer.getQuantity() - quantityToDecrement;
-        if (newBeerQuantity < 0) throw new BeerNegativeQuantityException(id, quantityToDecrement);
+    private BeerDTO toDTO(Beer beer) {
+        BeerDTO beerDTO = beerMapper.toDTO(beer);
+        if (beer.getShards() > 1) beerDTO.setQuantity(stockShards.quantity(beer.getId()));
+        StockLedger ledger = stockLedger.getIfAvailable();
+        if (ledger != null) return ledger.overlay(beerDTO);
+        warehouses.overlay(beerDTO);
+        return beerDTO;
+    }
 
-        beer.setQuantity(newBeerQuantity);
-        Beer resultBeer = beerRepository.save(beer);
-        return beerMapper.toDTO(resultBeer);
+    private boolean isWithin(int value, Integer min, Integer max) {
+        return (min == null || value >= min) && (max == null || value <= max);
     }
 
     private void verifyIfIsAlreadyRegistered(String name) throws BeerAlreadyRegisteredException {
@@ -71,7 +243,27 @@ public class BeerService {
         if (beer.isPresent()) throw new BeerAlreadyRegisteredException(name);
     }
 
+    private boolean adjustQuantity(Long id, int delta) throws BeerNotFoundException {
+        if (beerRepository.adjustQuantity(id, delta) > 0) return true;
+        Beer beer = findCached(id);
+        if (beer.getShards() > 1) return stockShards.adjust(beer, delta);
+        // The cached allotment may be stale, so the reclaim reads it again under the beer lock.
+        return delta > 0 && warehouses.reclaim(id) > 0 && beerRepository.adjustQuantity(id, delta) > 0;
+    }
+
     private Beer verifyIfExists(Long id) throws BeerNotFoundException {
         return beerRepository.findById(id).orElseThrow(() -> new BeerNotFoundException(id));
     }
+
+    /**
+     * For lookups that only need the beer's identity and layout. Reads that must see a write just
+     * made go through {@link #verifyIfExists(Long)}.
+     */
+    private Beer findCached(Long id) throws BeerNotFoundException {
+        return beerCache.findById(id, () -> {
+            Beer beer = verifyIfExists(id);
+            entityManager.detach(beer);
+            return beer;
+        });
+    }
 }
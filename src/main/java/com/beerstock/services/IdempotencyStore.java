@@ -0,0 +1,131 @@
+package com.beerstock.services;
+
+import com.beerstock.config.IdempotencyProperties;
+import com.beerstock.entities.IdempotencyRecord;
+import com.beerstock.enums.IdempotencyClaimStatus;
+import com.beerstock.repositories.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Responses to requests carrying an {@code Idempotency-Key}.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class IdempotencyStore {
+    private final IdempotencyRecordRepository recordRepository;
+    private final TaskScheduler taskScheduler;
+    private final IdempotencyProperties properties;
+    private final Clock clock;
+    private final Cache<String, StoredResponse> responses;
+    private final ConcurrentMap<String, String> inFlight = new ConcurrentHashMap<>();
+
+    private ScheduledFuture<?> purgeTask;
+
+    public IdempotencyStore(IdempotencyRecordRepository recordRepository, TaskScheduler taskScheduler, IdempotencyProperties properties) {
+        this(recordRepository, taskScheduler, properties, Clock.systemUTC());
+    }
+
+    IdempotencyStore(IdempotencyRecordRepository recordRepository, TaskScheduler taskScheduler, IdempotencyProperties properties, Clock clock) {
+        this.recordRepository = recordRepository;
+        this.taskScheduler = taskScheduler;
+        this.properties = properties;
+        this.clock = clock;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (properties.isPersistent()) purgeTask = taskScheduler.scheduleWithFixedDelay(this::purge, properties.getPurgeInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (purgeTask != null) purgeTask.cancel(false);
+    }
+
+    public Claim claim(String key, String fingerprint) {
+        StoredResponse stored = find(key);
+        if (stored == null) {
+            String claimant = inFlight.putIfAbsent(key, fingerprint);
+            if (claimant != null) return new Claim(claimant.equals(fingerprint) ? IdempotencyClaimStatus.IN_PROGRESS : IdempotencyClaimStatus.MISMATCH, null);
+            stored = find(key);
+            if (stored == null) return new Claim(IdempotencyClaimStatus.CLAIMED, null);
+            inFlight.remove(key);
+        }
+        return stored.getFingerprint().equals(fingerprint)
+                ? new Claim(IdempotencyClaimStatus.REPLAY, stored)
+                : new Claim(IdempotencyClaimStatus.MISMATCH, null);
+    }
+
+    public void complete(String key, StoredResponse response) {
+        responses.put(key, response);
+        inFlight.remove(key);
+        if (!properties.isPersistent()) return;
+        try {
+            recordRepository.save(new IdempotencyRecord(key, response.getFingerprint(), response.getStatus(),
+                    response.getContentType(), response.getBody(), clock.instant()));
+        } catch (DataAccessException e) {
+            log.warn("Could not persist the response to idempotency key {}, only this instance will replay it", key, e);
+        }
+    }
+
+    public void release(String key) {
+        inFlight.remove(key);
+    }
+
+    public void purge() {
+        try {
+            int purged = recordRepository.deleteCreatedBefore(clock.instant().minus(properties.getTtl()));
+            if (purged > 0) log.debug("Purged {} expired idempotency records", purged);
+        } catch (DataAccessException e) {
+            log.warn("Could not purge expired idempotency records, retrying on next run", e);
+        }
+    }
+
+    private StoredResponse find(String key) {
+        StoredResponse stored = responses.getIfPresent(key);
+        if (stored != null || !properties.isPersistent()) return stored;
+
+        Instant expiredBefore = clock.instant().minus(properties.getTtl());
+        Optional<IdempotencyRecord> record = recordRepository.findById(key)
+                .filter(candidate -> candidate.getCreatedAt().isAfter(expiredBefore));
+        if (record.isEmpty()) return null;
+        stored = new StoredResponse(record.get().getFingerprint(), record.get().getStatus(), record.get().getContentType(), record.get().getBody());
+        responses.put(key, stored);
+        return stored;
+    }
+
+    @Value
+    public static class Claim {
+        IdempotencyClaimStatus status;
+        StoredResponse response;
+    }
+
+    @Value
+    public static class StoredResponse {
+        String fingerprint;
+        int status;
+        String contentType;
+        byte[] body;
+    }
+}
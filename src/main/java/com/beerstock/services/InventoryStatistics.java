@@ -0,0 +1,222 @@
+package com.beerstock.services;
+
+import com.beerstock.config.InventoryStatsProperties;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.InventoryStatsDTO;
+import com.beerstock.dtos.InventoryTotalsDTO;
+import com.beerstock.enums.BeerType;
+import com.beerstock.enums.StockMovementType;
+import com.beerstock.repositories.BeerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Inventory totals per beer type and brand, loaded from the database on startup and then kept up
+ * to date by every committed write, so reading them never scans the table.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class InventoryStatistics {
+    private static final int SKUS = 0;
+    private static final int UNITS = 1;
+    private static final int CAPACITY = 2;
+    private static final int SKUS_AT_ZERO = 3;
+
+    private final BeerRepository beerRepository;
+    private final ObjectProvider<StockLedger> stockLedger;
+    private final TaskScheduler taskScheduler;
+    private final InventoryStatsProperties properties;
+    private final Counter drift;
+    private final ConcurrentMap<Group, Totals> totals = new ConcurrentHashMap<>();
+    private final Map<Group, long[]> suspected = new HashMap<>();
+
+    private ScheduledFuture<?> reconcileTask;
+
+    public InventoryStatistics(BeerRepository beerRepository, ObjectProvider<StockLedger> stockLedger, TaskScheduler taskScheduler,
+                               InventoryStatsProperties properties, MeterRegistry meterRegistry) {
+        this.beerRepository = beerRepository;
+        this.stockLedger = stockLedger;
+        this.taskScheduler = taskScheduler;
+        this.properties = properties;
+        this.drift = Counter.builder("beerstock.stats.drift")
+                .description("Inventory statistic groups found out of sync with the beer table")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reload();
+        reconcileTask = taskScheduler.scheduleWithFixedDelay(this::reconcile, properties.getReconcileInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reconcileTask != null) reconcileTask.cancel(false);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (event.getMovement() == StockMovementType.CREATED) onCreated(event.getBeer());
+        else if (event.getMovement() == StockMovementType.DELETED) onDeleted(event.getBeer());
+        else if (event.getMovement() != null) onAdjusted(event.getBeer(), event.getDelta());
+    }
+
+    public void onCreated(BeerDTO beerDTO) {
+        add(beerDTO, 1, beerDTO.getQuantity(), beerDTO.getMax(), beerDTO.getQuantity() == 0 ? 1 : 0);
+    }
+
+    public void onDeleted(BeerDTO beerDTO) {
+        add(beerDTO, -1, -beerDTO.getQuantity(), -beerDTO.getMax(), beerDTO.getQuantity() == 0 ? -1 : 0);
+    }
+
+    public void onAdjusted(BeerDTO beerDTO, int delta) {
+        int quantity = beerDTO.getQuantity();
+        int atZero = (quantity == 0 ? 1 : 0) - (quantity - delta == 0 ? 1 : 0);
+        add(beerDTO, 0, delta, 0, atZero);
+    }
+
+    public InventoryStatsDTO statistics() {
+        Map<Group, long[]> snapshot = snapshot();
+        long[] total = new long[4];
+        Map<BeerType, long[]> byType = new TreeMap<>();
+        Map<String, long[]> byBrand = new TreeMap<>();
+        snapshot.forEach((group, values) -> {
+            if (values[SKUS] == 0) return;
+            accumulate(total, values);
+            accumulate(byType.computeIfAbsent(group.getType(), type -> new long[4]), values);
+            accumulate(byBrand.computeIfAbsent(group.getBrand(), brand -> new long[4]), values);
+        });
+        return InventoryStatsDTO.builder()
+                .total(toDTO(null, total))
+                .byType(byType.entrySet().stream().map(entry -> toDTO(entry.getKey().name(), entry.getValue())).collect(Collectors.toList()))
+                .byBrand(byBrand.entrySet().stream().map(entry -> toDTO(entry.getKey(), entry.getValue())).collect(Collectors.toList()))
+                .build();
+    }
+
+    public synchronized int reconcile() {
+        try {
+            stockLedger.ifAvailable(StockLedger::flush);
+            Map<Group, long[]> before = snapshot();
+            Map<Group, long[]> table = load();
+            Map<Group, long[]> after = snapshot();
+
+            Set<Group> groups = new HashSet<>(table.keySet());
+            groups.addAll(after.keySet());
+            Map<Group, long[]> differences = new HashMap<>();
+            int drifted = 0;
+            for (Group group : groups) {
+                long[] expected = table.getOrDefault(group, new long[4]);
+                long[] maintained = after.getOrDefault(group, new long[4]);
+                if (Arrays.equals(expected, maintained) || !Arrays.equals(maintained, before.getOrDefault(group, new long[4]))) continue;
+
+                long[] difference = new long[4];
+                for (int i = 0; i < difference.length; i++) difference[i] = expected[i] - maintained[i];
+                if (!Arrays.equals(difference, suspected.get(group))) {
+                    differences.put(group, difference);
+                    continue;
+                }
+
+                log.warn("Inventory statistics of {} drifted: maintained {}, table {}", group, Arrays.toString(maintained), Arrays.toString(expected));
+                totals.computeIfAbsent(group, key -> new Totals(new long[4]))
+                        .add(difference[SKUS], difference[UNITS], difference[CAPACITY], difference[SKUS_AT_ZERO]);
+                drifted++;
+            }
+            suspected.clear();
+            suspected.putAll(differences);
+            drift.increment(drifted);
+            return drifted;
+        } catch (DataAccessException e) {
+            log.warn("Could not reconcile the inventory statistics, retrying on next run", e);
+            return 0;
+        }
+    }
+
+    synchronized void reload() {
+        Map<Group, long[]> table = load();
+        totals.clear();
+        table.forEach((group, values) -> totals.put(group, new Totals(values)));
+        suspected.clear();
+    }
+
+    private void add(BeerDTO beerDTO, long skus, long units, long capacity, long skusAtZero) {
+        totals.computeIfAbsent(new Group(beerDTO.getType(), beerDTO.getBrand()), group -> new Totals(new long[4]))
+                .add(skus, units, capacity, skusAtZero);
+    }
+
+    private Map<Group, long[]> snapshot() {
+        return totals.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().values()));
+    }
+
+    private Map<Group, long[]> load() {
+        Map<Group, long[]> table = new HashMap<>();
+        beerRepository.sumByTypeAndBrand().forEach(total -> table.put(new Group(total.getType(), total.getBrand()),
+                new long[]{total.getSkus(), total.getQuantity(), total.getCapacity(), total.getSkusAtZero()}));
+        beerRepository.sumShardedQuantities().forEach(beer -> accumulate(
+                table.computeIfAbsent(new Group(beer.getType(), beer.getBrand()), group -> new long[4]),
+                new long[]{1, beer.getQuantity(), beer.getCapacity(), beer.getQuantity() == 0 ? 1 : 0}));
+        return table;
+    }
+
+    private static void accumulate(long[] into, long[] values) {
+        for (int i = 0; i < into.length; i++) into[i] += values[i];
+    }
+
+    private static InventoryTotalsDTO toDTO(String group, long[] values) {
+        return InventoryTotalsDTO.builder()
+                .group(group)
+                .skus(values[SKUS])
+                .unitsOnHand(values[UNITS])
+                .capacity(values[CAPACITY])
+                .fillRatio(values[CAPACITY] == 0 ? 0 : (double) values[UNITS] / values[CAPACITY])
+                .skusAtZero(values[SKUS_AT_ZERO])
+                .build();
+    }
+
+    @Value
+    private static class Group {
+        BeerType type;
+        String brand;
+    }
+
+    private static final class Totals {
+        private final long[] values;
+
+        private Totals(long[] values) {
+            this.values = values;
+        }
+
+        private synchronized void add(long skus, long units, long capacity, long skusAtZero) {
+            values[SKUS] += skus;
+            values[UNITS] += units;
+            values[CAPACITY] += capacity;
+            values[SKUS_AT_ZERO] += skusAtZero;
+        }
+
+        private synchronized long[] values() {
+            return values.clone();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.beerstock.services;
+
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.StockAdjustmentDTO;
+import com.beerstock.dtos.StockOperationDTO;
+import com.beerstock.dtos.StockOperationResultDTO;
+import com.beerstock.entities.BeerRow;
+import com.beerstock.enums.StockAdjustmentMode;
+import com.beerstock.enums.StockOperationStatus;
+import com.beerstock.exceptions.BeerAlreadyRegisteredException;
+import com.beerstock.exceptions.BeerNegativeQuantityException;
+import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.exceptions.BeerStockExceededException;
+import com.beerstock.mappers.BeerMapper;
+import com.beerstock.repositories.ReactiveBeerRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of {@link BeerService} and {@link StockAdjustmentService} for the
+ * reactive profile.
+ */
+@Service
+@Profile("reactive")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBeerService {
+    private final ReactiveBeerRepository beerRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    public Mono<BeerDTO> create(BeerDTO beerDTO) {
+        return beerRepository.existsByName(beerDTO.getName())
+                .flatMap(exists -> exists
+                        ? Mono.<BeerRow>error(new BeerAlreadyRegisteredException(beerDTO.getName()))
+                        : beerRepository.save(beerMapper.toRow(beerDTO)))
+                .map(beerMapper::toDTO);
+    }
+
+    public Mono<BeerDTO> findByName(String name) {
+        return beerRepository.findByName(name)
+                .map(beerMapper::toDTO)
+                .switchIfEmpty(Mono.error(() -> new BeerNotFoundException(name)));
+    }
+
+    public Flux<BeerDTO> listAll() {
+        return beerRepository.streamAll().map(beerMapper::toDTO);
+    }
+
+    public Mono<Void> deleteById(Long id) {
+        return beerRepository.deleteBeer(id)
+                .flatMap(deleted -> deleted > 0 ? Mono.<Void>empty() : Mono.error(new BeerNotFoundException(id)));
+    }
+
+    public Mono<BeerDTO> increment(Long id, int quantityToIncrement) {
+        return adjustQuantity(id, quantityToIncrement, () -> new BeerStockExceededException(id, quantityToIncrement))
+                .map(beerMapper::toDTO);
+    }
+
+    public Mono<BeerDTO> decrement(Long id, int quantityToDecrement) {
+        return adjustQuantity(id, -quantityToDecrement, () -> new BeerNegativeQuantityException(id, quantityToDecrement))
+                .map(beerMapper::toDTO);
+    }
+
+    public Mono<List<StockOperationResultDTO>> adjust(StockAdjustmentDTO stockAdjustmentDTO) {
+        return transactionalOperator.execute(status -> Flux.fromIterable(stockAdjustmentDTO.getOperations())
+                .concatMap(this::adjust)
+                .collectList()
+                .map(results -> {
+                    if (!mustRollBack(stockAdjustmentDTO, results)) return results;
+                    status.setRollbackOnly();
+                    return rollBack(results);
+                }))
+                .single();
+    }
+
+    private Mono<StockOperationResultDTO> adjust(StockOperationDTO operation) {
+        return beerRepository.adjustQuantity(operation.getId(), operation.getDelta())
+                .flatMap(updated -> updated > 0
+                        ? beerRepository.findById(operation.getId())
+                                .map(beerRow -> toResult(operation, StockOperationStatus.APPLIED, beerRow.getQuantity()))
+                        : beerRepository.existsById(operation.getId())
+                                .map(exists -> toResult(operation, rejectionOf(operation, exists), null)));
+    }
+
+    private Mono<BeerRow> adjustQuantity(Long id, int delta, Supplier<Exception> rejection) {
+        return beerRepository.adjustQuantity(id, delta)
+                .flatMap(updated -> updated > 0
+                        ? verifyIfExists(id)
+                        : verifyIfExists(id).then(Mono.<BeerRow>error(rejection)));
+    }
+
+    private Mono<BeerRow> verifyIfExists(Long id) {
+        return beerRepository.findById(id).switchIfEmpty(Mono.error(() -> new BeerNotFoundException(id)));
+    }
+
+    private StockOperationStatus rejectionOf(StockOperationDTO operation, boolean exists) {
+        if (!exists) return StockOperationStatus.NOT_FOUND;
+        return operation.getDelta() >= 0 ? StockOperationStatus.EXCEEDED : StockOperationStatus.NEGATIVE;
+    }
+
+    private boolean mustRollBack(StockAdjustmentDTO stockAdjustmentDTO, List<StockOperationResultDTO> results) {
+        return stockAdjustmentDTO.getMode() == StockAdjustmentMode.ALL_OR_NOTHING
+                && results.stream().anyMatch(result -> result.getStatus() != StockOperationStatus.APPLIED);
+    }
+
+    private List<StockOperationResultDTO> rollBack(List<StockOperationResultDTO> results) {
+        results.stream()
+                .filter(result -> result.getStatus() == StockOperationStatus.APPLIED)
+                .forEach(result -> {
+                    result.setStatus(StockOperationStatus.ROLLED_BACK);
+                    result.setQuantity(null);
+                });
+        return results;
+    }
+
+    private StockOperationResultDTO toResult(StockOperationDTO operation, StockOperationStatus status, Integer quantity) {
+        return StockOperationResultDTO.builder()
+                .id(operation.getId())
+                .delta(operation.getDelta())
+                .status(status)
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.beerstock.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads into one.
+ */
+@Component
+public class SingleFlight {
+    private final Map<List<Object>, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter collapsed;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.executed = calls(meterRegistry, "executed");
+        this.collapsed = calls(meterRegistry, "collapsed");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> read) {
+        List<Object> flightKey = List.of(operation, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = flights.putIfAbsent(flightKey, flight);
+        if (inFlight != null) {
+            collapsed.increment();
+            return (T) join(inFlight);
+        }
+
+        executed.increment();
+        try {
+            T result = read.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(flightKey, flight);
+        }
+    }
+
+    int inFlight() {
+        return flights.size();
+    }
+
+    private static Object join(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    private static Counter calls(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("beerstock.singleflight.calls")
+                .description("Reads run against the database or collapsed into a read already in flight")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
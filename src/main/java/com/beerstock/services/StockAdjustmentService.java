@@ -0,0 +1,149 @@
+package com.beerstock.services;
+
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.StockAdjustmentDTO;
+import com.beerstock.dtos.StockOperationDTO;
+import com.beerstock.dtos.StockOperationResultDTO;
+import com.beerstock.entities.Beer;
+import com.beerstock.enums.StockAdjustmentMode;
+import com.beerstock.enums.StockOperationStatus;
+import com.beerstock.mappers.BeerMapper;
+import com.beerstock.repositories.BeerRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a list of stock deltas at once.
+ */
+@Service
+@Profile("!reactive")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class StockAdjustmentService {
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final BeerRepository beerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<StockLedger> stockLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockShards stockShards;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    public List<StockOperationResultDTO> adjust(StockAdjustmentDTO stockAdjustmentDTO) {
+        StockLedger ledger = stockLedger.getIfAvailable();
+        return ledger != null
+                ? adjustInLedger(ledger, stockAdjustmentDTO)
+                : adjustInDatabase(stockAdjustmentDTO);
+    }
+
+    private List<StockOperationResultDTO> adjustInDatabase(StockAdjustmentDTO stockAdjustmentDTO) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> adjustInTransaction(stockAdjustmentDTO));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_ATTEMPTS) throw e;
+            }
+        }
+    }
+
+    private List<StockOperationResultDTO> adjustInTransaction(StockAdjustmentDTO stockAdjustmentDTO) {
+        List<StockOperationDTO> operations = stockAdjustmentDTO.getOperations();
+        Set<Long> ids = operations.stream().map(StockOperationDTO::getId).collect(Collectors.toSet());
+        Map<Long, Beer> beers = beerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+        Map<Long, Integer> quantities = beers.values().stream()
+                .collect(Collectors.toMap(Beer::getId, this::quantityOf));
+
+        Map<Long, Integer> adjustedQuantities = new HashMap<>();
+        List<StockOperationResultDTO> results = new ArrayList<>(operations.size());
+        for (StockOperationDTO operation : operations) {
+            Beer beer = beers.get(operation.getId());
+            if (beer == null) {
+                results.add(toResult(operation, StockOperationStatus.NOT_FOUND, null));
+                continue;
+            }
+
+            int adjustedQuantity = adjustedQuantities.getOrDefault(beer.getId(), quantities.get(beer.getId())) + operation.getDelta();
+            if (adjustedQuantity - beer.getLocated() + beer.getAllotted() > beer.getMax()) {
+                results.add(toResult(operation, StockOperationStatus.EXCEEDED, null));
+            } else if (adjustedQuantity < beer.getReserved() + beer.getLocated()) {
+                results.add(toResult(operation, StockOperationStatus.NEGATIVE, null));
+            } else {
+                adjustedQuantities.put(beer.getId(), adjustedQuantity);
+                results.add(toResult(operation, StockOperationStatus.APPLIED, adjustedQuantity));
+            }
+        }
+
+        if (mustRollBack(stockAdjustmentDTO, results)) return rollBack(results);
+        adjustedQuantities.forEach((id, quantity) -> {
+            Beer beer = beers.get(id);
+            if (beer.getShards() == 1) {
+                beer.setQuantity(quantity);
+            } else if (!stockShards.spread(id, quantity - quantities.get(id))) {
+                throw new OptimisticLockingFailureException(String.format("Shards of beer with id %s changed concurrently.", id));
+            }
+        });
+        publishApplied(results, id -> beerMapper.toDTO(beers.get(id)));
+        return results;
+    }
+
+    private int quantityOf(Beer beer) {
+        return beer.getShards() > 1 ? stockShards.quantity(beer.getId()) : beer.getQuantity();
+    }
+
+    private List<StockOperationResultDTO> adjustInLedger(StockLedger ledger, StockAdjustmentDTO stockAdjustmentDTO) {
+        List<StockOperationResultDTO> results = ledger.adjust(stockAdjustmentDTO.getOperations(),
+                stockAdjustmentDTO.getMode() == StockAdjustmentMode.ALL_OR_NOTHING);
+        if (mustRollBack(stockAdjustmentDTO, results)) return rollBack(results);
+        publishApplied(results, ledger::beerOf);
+        return results;
+    }
+
+    private void publishApplied(List<StockOperationResultDTO> results, Function<Long, BeerDTO> beerOf) {
+        results.stream()
+                .filter(result -> result.getStatus() == StockOperationStatus.APPLIED)
+                .forEach(result -> {
+                    BeerDTO beerDTO = beerOf.apply(result.getId());
+                    if (beerDTO == null) return;
+                    beerDTO.setQuantity(result.getQuantity());
+                    eventPublisher.publishEvent(BeerChangedEvent.adjusted(beerDTO, result.getDelta()));
+                });
+    }
+
+    private boolean mustRollBack(StockAdjustmentDTO stockAdjustmentDTO, List<StockOperationResultDTO> results) {
+        return stockAdjustmentDTO.getMode() == StockAdjustmentMode.ALL_OR_NOTHING
+                && results.stream().anyMatch(result -> result.getStatus() != StockOperationStatus.APPLIED);
+    }
+
+    private List<StockOperationResultDTO> rollBack(List<StockOperationResultDTO> results) {
+        results.stream()
+                .filter(result -> result.getStatus() == StockOperationStatus.APPLIED)
+                .forEach(result -> {
+                    result.setStatus(StockOperationStatus.ROLLED_BACK);
+                    result.setQuantity(null);
+                });
+        return results;
+    }
+
+    private StockOperationResultDTO toResult(StockOperationDTO operation, StockOperationStatus status, Integer quantity) {
+        return StockOperationResultDTO.builder()
+                .id(operation.getId())
+                .delta(operation.getDelta())
+                .status(status)
+                .quantity(quantity)
+                .build();
+    }
+}
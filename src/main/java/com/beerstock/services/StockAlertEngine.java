@@ -0,0 +1,152 @@
+package com.beerstock.services;
+
+import com.beerstock.config.StockAlertProperties;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.StockAlertDTO;
+import com.beerstock.enums.StockAlertType;
+import com.beerstock.enums.StockMovementType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Low-stock rules evaluated on the write path.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class StockAlertEngine {
+    private final StockAlertProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final ConcurrentMap<Long, BeerConsumption> consumptions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public StockAlertEngine(StockAlertProperties properties, ApplicationEventPublisher eventPublisher) {
+        this(properties, eventPublisher, Clock.systemUTC());
+    }
+
+    StockAlertEngine(StockAlertProperties properties, ApplicationEventPublisher eventPublisher, Clock clock) {
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        BeerDTO beerDTO = event.getBeer();
+        if (event.getMovement() == null) onReorderPointChanged(beerDTO);
+        else if (event.getMovement() == StockMovementType.CREATED) onCreated(beerDTO);
+        else if (event.getMovement() == StockMovementType.DECREMENTED) onDecrement(beerDTO, -event.getDelta());
+        else if (event.getMovement() == StockMovementType.INCREMENTED) onIncrement(beerDTO);
+        else if (event.getMovement() == StockMovementType.DELETED) forget(beerDTO.getId());
+    }
+
+    public void onDecrement(BeerDTO beerDTO, int units) {
+        consumption(beerDTO).record(beerDTO.getQuantity(), units);
+    }
+
+    public void onIncrement(BeerDTO beerDTO) {
+        BeerConsumption consumption = consumptions.get(beerDTO.getId());
+        if (consumption != null) consumption.record(beerDTO.getQuantity(), 0);
+    }
+
+    public void onCreated(BeerDTO beerDTO) {
+        if (beerDTO.getReorderPoint() != null) onReorderPointChanged(beerDTO);
+    }
+
+    public void onReorderPointChanged(BeerDTO beerDTO) {
+        if (beerDTO.getReorderPoint() == null && !consumptions.containsKey(beerDTO.getId())) return;
+        consumption(beerDTO).changeReorderPoint(beerDTO.getReorderPoint(), beerDTO.getQuantity());
+    }
+
+    public void forget(Long id) {
+        consumptions.remove(id);
+    }
+
+    private BeerConsumption consumption(BeerDTO beerDTO) {
+        return consumptions.computeIfAbsent(beerDTO.getId(), id -> new BeerConsumption(id, beerDTO.getName(), beerDTO.getReorderPoint()));
+    }
+
+    private void raise(StockAlertDTO alert) {
+        log.warn("Stock alert {} for beer {} ({}): quantity {}, {} units/h, depleted at {}", alert.getType(), alert.getId(),
+                alert.getName(), alert.getQuantity(), alert.getUnitsPerHour(), alert.getProjectedDepletionAt());
+        eventPublisher.publishEvent(alert);
+    }
+
+    private final class BeerConsumption {
+        private final Long id;
+        private final String name;
+        private final long bucketMillis = Math.max(1, properties.getWindow().toMillis() / properties.getBuckets());
+        private final int[] units = new int[properties.getBuckets()];
+        private final long windowMillis = bucketMillis * units.length;
+        private long currentBucket;
+        private long windowUnits;
+        private Integer reorderPoint;
+        private boolean lowStockRaised;
+        private boolean depletionRaised;
+
+        private BeerConsumption(Long id, String name, Integer reorderPoint) {
+            this.id = id;
+            this.name = name;
+            this.reorderPoint = reorderPoint;
+        }
+
+        private synchronized void changeReorderPoint(Integer reorderPoint, int quantity) {
+            this.reorderPoint = reorderPoint;
+            long now = clock.millis();
+            slide(now);
+            evaluate(now, quantity);
+        }
+
+        private synchronized void record(int quantity, int taken) {
+            long now = clock.millis();
+            slide(now);
+            units[(int) (currentBucket % units.length)] += taken;
+            windowUnits += taken;
+            evaluate(now, quantity);
+        }
+
+        private void evaluate(long now, int quantity) {
+            boolean lowStock = reorderPoint != null && quantity <= reorderPoint;
+            if (lowStock && !lowStockRaised) raise(alert(StockAlertType.LOW_STOCK, quantity, now));
+            lowStockRaised = lowStock;
+
+            boolean depleting = windowUnits > 0 && quantity * windowMillis < properties.getDepletionHorizon().toMillis() * windowUnits;
+            if (depleting && !depletionRaised) raise(alert(StockAlertType.DEPLETION_FORECAST, quantity, now));
+            depletionRaised = depleting;
+        }
+
+        private void slide(long now) {
+            long bucket = now / bucketMillis;
+            long elapsed = bucket - currentBucket;
+            if (elapsed >= units.length) {
+                Arrays.fill(units, 0);
+                windowUnits = 0;
+            } else {
+                for (long b = currentBucket + 1; b <= bucket; b++) {
+                    int index = (int) (b % units.length);
+                    windowUnits -= units[index];
+                    units[index] = 0;
+                }
+            }
+            currentBucket = bucket;
+        }
+
+        private StockAlertDTO alert(StockAlertType type, int quantity, long now) {
+            double unitsPerHour = windowUnits * (double) Duration.ofHours(1).toMillis() / windowMillis;
+            Instant depletedAt = windowUnits > 0 ? Instant.ofEpochMilli(now + quantity * windowMillis / windowUnits) : null;
+            return new StockAlertDTO(id, name, type, quantity, reorderPoint, unitsPerHour, depletedAt);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.beerstock.services;
+
+import com.beerstock.config.StockAlertProperties;
+import com.beerstock.dtos.StockAlertDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts every stock alert to {@code beerstock.alerts.webhook-url}.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "beerstock.alerts.webhook-url")
+public class StockAlertWebhook {
+    private static final int BACKLOG = 1000;
+
+    private final RestTemplate restTemplate;
+    private final String url;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public StockAlertWebhook(RestTemplateBuilder restTemplateBuilder, StockAlertProperties properties, MeterRegistry meterRegistry) {
+        this(restTemplateBuilder, properties, meterRegistry, BACKLOG);
+    }
+
+    StockAlertWebhook(RestTemplateBuilder restTemplateBuilder, StockAlertProperties properties, MeterRegistry meterRegistry, int backlog) {
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(2))
+                .setReadTimeout(Duration.ofSeconds(5))
+                .build();
+        this.url = properties.getWebhookUrl();
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(backlog));
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    @EventListener
+    public void onAlert(StockAlertDTO alert) {
+        try {
+            executor.execute(() -> post(alert));
+        } catch (RejectedExecutionException e) {
+            dropped("backlog_full").increment();
+            log.warn("Dropping stock alert {} for beer {}, webhook backlog full", alert.getType(), alert.getId());
+        }
+    }
+
+    private void post(StockAlertDTO alert) {
+        try {
+            restTemplate.postForLocation(url, alert);
+        } catch (RestClientException e) {
+            dropped("post_failed").increment();
+            log.warn("Could not post stock alert {} for beer {} to {}", alert.getType(), alert.getId(), url, e);
+        }
+    }
+
+    private Counter dropped(String reason) {
+        return Counter.builder("beerstock.alerts.webhook.dropped")
+                .description("Stock alerts never delivered to the webhook")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,246 @@
+package com.beerstock.services;
+
+import com.beerstock.config.StockEventProperties;
+import com.beerstock.dtos.StockAlertDTO;
+import com.beerstock.dtos.StockEventDTO;
+import com.beerstock.dtos.StockEventResetDTO;
+import com.beerstock.enums.StockMovementType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans stock changes and {@link StockAlertEngine} alerts out to Server-Sent Events subscribers,
+ * as {@code stock} and {@code alert} events.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class StockEventBroadcaster {
+    private static final String STOCK_EVENT = "stock";
+    private static final String ALERT_EVENT = "alert";
+    private static final String RESET_EVENT = "reset";
+
+    private final StockEventProperties properties;
+    private final TaskScheduler taskScheduler;
+    private final ExecutorService sender;
+    private final Deque<Event> history = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private long sequence;
+
+    private ScheduledFuture<?> watchdogTask;
+
+    public StockEventBroadcaster(StockEventProperties properties, TaskScheduler taskScheduler) {
+        this.properties = properties;
+        this.taskScheduler = taskScheduler;
+        AtomicInteger threads = new AtomicInteger();
+        // One drain per subscriber at a time, so a client that stops reading only ever holds its own thread.
+        this.sender = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "stock-events-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        watchdogTask = taskScheduler.scheduleWithFixedDelay(this::disconnectBlocked, properties.getSendTimeout());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (watchdogTask != null) watchdogTask.cancel(false);
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdown();
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(properties.getTimeout().toMillis()));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+
+        synchronized (history) {
+            long oldest = history.isEmpty() ? sequence : history.getFirst().id - 1;
+            long earliest = Math.max(oldest, sequence - properties.getBufferSize());
+            subscriber.cursor = lastEventId == null ? sequence : Math.max(earliest, Math.min(lastEventId, sequence));
+            if (lastEventId != null && lastEventId != subscriber.cursor) subscriber.resetFrom = lastEventId;
+        }
+        subscribers.add(subscriber);
+        subscriber.schedule();
+        return subscriber.emitter;
+    }
+
+    public void publish(Long beerId, StockMovementType type, int delta, Integer quantity) {
+        publish(STOCK_EVENT, new StockEventDTO(beerId, type, delta, quantity));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (event.getMovement() == null) return;
+        Integer quantity = event.getMovement() == StockMovementType.DELETED ? 0 : event.getBeer().getQuantity();
+        publish(event.getBeer().getId(), event.getMovement(), event.getDelta(), quantity);
+    }
+
+    @EventListener
+    public void onAlert(StockAlertDTO alert) {
+        publish(ALERT_EVENT, alert);
+    }
+
+    private void publish(String name, Object data) {
+        long id;
+        synchronized (history) {
+            id = ++sequence;
+            history.addLast(new Event(id, name, data));
+            if (history.size() > properties.getHistorySize()) history.removeFirst();
+        }
+        subscribers.forEach(subscriber -> subscriber.offer(id));
+    }
+
+    public void disconnectBlocked() {
+        long deadline = System.nanoTime() - properties.getSendTimeout().toNanos();
+        subscribers.forEach(subscriber -> subscriber.disconnectIfBlockedSince(deadline));
+    }
+
+    private List<Event> eventsAfter(long cursor) {
+        synchronized (history) {
+            if (history.isEmpty() || history.getLast().id <= cursor) return List.of();
+            if (history.getFirst().id > cursor + 1) return null;
+            List<Event> events = new ArrayList<>((int) (history.getLast().id - cursor));
+            for (Iterator<Event> it = history.descendingIterator(); it.hasNext(); ) {
+                Event event = it.next();
+                if (event.id <= cursor) break;
+                events.add(event);
+            }
+            Collections.reverse(events);
+            return events;
+        }
+    }
+
+    private static final class Event {
+        private final long id;
+        private final String name;
+        private final Object data;
+
+        private Event(long id, String name, Object data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile Long resetFrom;
+        private Thread sendingThread;
+        private long sendingSince;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(long id) {
+            if (id - cursor <= properties.getBufferSize()) {
+                schedule();
+            } else {
+                drop(id);
+            }
+        }
+
+        private void drop(long id) {
+            if (subscribers.remove(this)) {
+                log.debug("Dropping slow stock event subscriber at event {}", id);
+                emitter.complete();
+            }
+        }
+
+        private synchronized void disconnectIfBlockedSince(long deadline) {
+            if (sendingThread == null || sendingSince - deadline > 0 || !subscribers.remove(this)) return;
+            log.debug("Disconnecting stock event subscriber blocked on event {} for over {}", cursor + 1, properties.getSendTimeout());
+            sendingThread.interrupt();
+            // complete() waits for the blocked send to give up, so it must not run on the scheduler.
+            sender.execute(emitter::complete);
+        }
+
+        private synchronized void sending() {
+            sendingThread = Thread.currentThread();
+            sendingSince = System.nanoTime();
+        }
+
+        private synchronized void sent() {
+            sendingThread = null;
+            Thread.interrupted();
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sending();
+            try {
+                emitter.send(event);
+            } finally {
+                sent();
+            }
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) sender.execute(this::drain);
+        }
+
+        private void drain() {
+            boolean more;
+            try {
+                List<Event> events = eventsAfter(cursor);
+                if (events == null) {
+                    drop(cursor + 1);
+                    return;
+                }
+                if (resetFrom != null) {
+                    send(SseEmitter.event()
+                            .id(String.valueOf(cursor))
+                            .name(RESET_EVENT)
+                            .data(new StockEventResetDTO(resetFrom, cursor), MediaType.APPLICATION_JSON));
+                    resetFrom = null;
+                }
+                for (Event event : events) {
+                    send(SseEmitter.event()
+                            .id(String.valueOf(event.id))
+                            .name(event.name)
+                            .data(event.data, MediaType.APPLICATION_JSON));
+                    cursor = event.id;
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            synchronized (history) {
+                more = sequence > cursor;
+            }
+            if (more && subscribers.contains(this)) schedule();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.beerstock.services;
+
+import com.beerstock.config.StockJournalProperties;
+import com.beerstock.dtos.StockLevelDTO;
+import com.beerstock.entities.StockMovement;
+import com.beerstock.entities.StockSnapshot;
+import com.beerstock.enums.StockMovementType;
+import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.repositories.StockMovementRepository;
+import com.beerstock.repositories.StockSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only journal of stock movements.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class StockJournal {
+    private final StockMovementRepository movementRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final BeerRepository beerRepository;
+    private final StockShards stockShards;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final StockJournalProperties properties;
+
+    private final BlockingQueue<StockMovement> pending = new LinkedBlockingQueue<>();
+    private final List<ScheduledFuture<?>> tasks = new ArrayList<>();
+
+    @PostConstruct
+    public void start() {
+        tasks.add(taskScheduler.scheduleWithFixedDelay(this::flush, properties.getFlushInterval()));
+        tasks.add(taskScheduler.scheduleWithFixedDelay(this::snapshot, properties.getSnapshotInterval()));
+        tasks.add(taskScheduler.scheduleWithFixedDelay(this::compact, properties.getCompactionInterval()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        tasks.forEach(task -> task.cancel(false));
+        flush();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void initialize() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (snapshotRepository.count() > 0 || movementRepository.count() > 0) return;
+            Instant now = Instant.now();
+            snapshotRepository.saveAll(beerRepository.findAll().stream()
+                    .map(beer -> new StockSnapshot(null, beer.getId(), 0, beer.getShards() > 1 ? stockShards.quantity(beer.getId()) : beer.getQuantity(), now))
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (event.getMovement() != null) record(event.getBeer().getId(), event.getMovement(), event.getDelta());
+    }
+
+    public void record(Long beerId, StockMovementType type, int delta) {
+        pending.add(new StockMovement(null, beerId, type, delta, Instant.now()));
+    }
+
+    public synchronized void flush() {
+        List<StockMovement> batch = new ArrayList<>();
+        pending.drainTo(batch);
+        if (batch.isEmpty()) return;
+        try {
+            transactionTemplate.executeWithoutResult(status -> movementRepository.saveAll(batch));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not write {} stock movements, retrying on next flush", batch.size(), e);
+            batch.forEach(movement -> movement.setId(null));
+            List<StockMovement> newer = new ArrayList<>();
+            pending.drainTo(newer);
+            pending.addAll(batch);
+            pending.addAll(newer);
+        }
+    }
+
+    public synchronized void snapshot() {
+        flush();
+        transactionTemplate.executeWithoutResult(status -> {
+            long after = snapshotRepository.maxMovementId();
+            long upTo = movementRepository.maxId();
+            if (upTo <= after) return;
+
+            snapshotRepository.saveAll(movementRepository.sumDeltas(after, upTo).stream()
+                    .map(total -> new StockSnapshot(null, total.getBeerId(), upTo,
+                            latestQuantity(total.getBeerId()) + (int) total.getDelta(), total.getOccurredAt()))
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    public synchronized void compact() {
+        Instant before = Instant.now().minus(properties.getRetention());
+        Integer archived = transactionTemplate.execute(status -> {
+            long upTo = snapshotRepository.maxMovementId();
+            int count = movementRepository.archive(upTo, before);
+            movementRepository.deleteArchived(upTo, before);
+            return count;
+        });
+        if (archived != null && archived > 0) log.info("Archived {} stock movements older than {}", archived, before);
+    }
+
+    public StockLevelDTO quantityAt(Long beerId, Instant at) throws BeerNotFoundException {
+        flush();
+        Optional<StockSnapshot> snapshot = snapshotRepository.findFirstByBeerIdAndTakenAtLessThanEqualOrderByMovementIdDesc(beerId, at);
+        if (snapshot.isEmpty() && !movementRepository.existsByBeerIdAndOccurredAtLessThanEqual(beerId, at)) {
+            throw new BeerNotFoundException(beerId);
+        }
+
+        long after = snapshot.map(StockSnapshot::getMovementId).orElse(0L);
+        int quantity = snapshot.map(StockSnapshot::getQuantity).orElse(0) + (int) movementRepository.sumDeltas(beerId, after, at);
+        return new StockLevelDTO(beerId, at, quantity);
+    }
+
+    private int latestQuantity(Long beerId) {
+        return snapshotRepository.findFirstByBeerIdOrderByMovementIdDesc(beerId)
+                .map(StockSnapshot::getQuantity)
+                .orElse(0);
+    }
+}
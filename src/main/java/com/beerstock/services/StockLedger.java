@@ -0,0 +1,342 @@
+package com.beerstock.services;
+
+import com.beerstock.config.StockLedgerProperties;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.StockOperationDTO;
+import com.beerstock.dtos.StockOperationResultDTO;
+import com.beerstock.entities.Beer;
+import com.beerstock.entities.StockLedgerCheckpoint;
+import com.beerstock.enums.BeerType;
+import com.beerstock.enums.StockOperationStatus;
+import com.beerstock.exceptions.BeerNegativeQuantityException;
+import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.exceptions.BeerStockExceededException;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.repositories.StockLedgerCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind stock ledger.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "beerstock.ledger.enabled", havingValue = "true")
+public class StockLedger {
+    private static final String CHECKPOINT_NAME = "stock-ledger";
+    private static final String FLUSH_SQL = "update beer set quantity = quantity + ?, version = version + 1 where id = ?";
+
+    private final BeerRepository beerRepository;
+    private final StockLedgerCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final StockLedgerProperties properties;
+
+    private final ConcurrentMap<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    private final ReadWriteLock rotationLock = new ReentrantReadWriteLock();
+
+    private StockLedgerLog appendLog;
+    private ScheduledFuture<?> flushTask;
+
+    @PostConstruct
+    public void start() throws IOException {
+        appendLog = new StockLedgerLog(Paths.get(properties.getDirectory()), properties.isSyncOnAppend());
+        appendLog.open(recover());
+        flushTask = taskScheduler.scheduleWithFixedDelay(this::flush, properties.getFlushInterval());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        flushTask.cancel(false);
+        flush();
+        appendLog.close();
+    }
+
+    public BeerDTO increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
+        BeerDTO beerDTO = adjust(id, quantityToIncrement);
+        if (beerDTO == null) throw new BeerStockExceededException(id, quantityToIncrement);
+        return beerDTO;
+    }
+
+    public BeerDTO decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerNegativeQuantityException {
+        BeerDTO beerDTO = adjust(id, -quantityToDecrement);
+        if (beerDTO == null) throw new BeerNegativeQuantityException(id, quantityToDecrement);
+        return beerDTO;
+    }
+
+    public BeerDTO overlay(BeerDTO beerDTO) {
+        StockCounter counter = counters.get(beerDTO.getId());
+        if (counter != null) beerDTO.setQuantity(counter.quantity);
+        return beerDTO;
+    }
+
+    public void evict(Long id) {
+        counters.remove(id);
+    }
+
+    public void reorderPointChanged(Long id, Integer reorderPoint) {
+        StockCounter counter = counters.get(id);
+        if (counter != null) counter.reorderPoint = reorderPoint;
+    }
+
+    public List<StockOperationResultDTO> adjust(List<StockOperationDTO> operations, boolean allOrNothing) {
+        Map<Long, StockCounter> batch = new TreeMap<>();
+        for (StockOperationDTO operation : operations) {
+            try {
+                batch.put(operation.getId(), counterOf(operation.getId()));
+            } catch (BeerNotFoundException e) {
+                // reported as NOT_FOUND below
+            }
+        }
+
+        rotationLock.readLock().lock();
+        batch.values().forEach(counter -> counter.lock.lock());
+        try {
+            Map<Long, Integer> adjustedQuantities = new HashMap<>();
+            Map<Long, Integer> deltas = new HashMap<>();
+            List<StockOperationResultDTO> results = new ArrayList<>(operations.size());
+            for (StockOperationDTO operation : operations) {
+                StockCounter counter = batch.get(operation.getId());
+                if (counter == null) {
+                    results.add(toResult(operation, StockOperationStatus.NOT_FOUND, null));
+                    continue;
+                }
+
+                int adjustedQuantity = adjustedQuantities.getOrDefault(counter.id, counter.quantity) + operation.getDelta();
+                if (adjustedQuantity > counter.ceiling) {
+                    results.add(toResult(operation, StockOperationStatus.EXCEEDED, null));
+                } else if (adjustedQuantity < counter.floor) {
+                    results.add(toResult(operation, StockOperationStatus.NEGATIVE, null));
+                } else {
+                    adjustedQuantities.put(counter.id, adjustedQuantity);
+                    deltas.merge(counter.id, operation.getDelta(), Integer::sum);
+                    results.add(toResult(operation, StockOperationStatus.APPLIED, adjustedQuantity));
+                }
+            }
+
+            boolean rejected = results.stream().anyMatch(result -> result.getStatus() != StockOperationStatus.APPLIED);
+            if (deltas.isEmpty() || allOrNothing && rejected) return results;
+            try {
+                appendLog.append(deltas);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            adjustedQuantities.forEach((id, quantity) -> batch.get(id).quantity = quantity);
+            deltas.forEach((id, delta) -> batch.get(id).pending.addAndGet(delta));
+            return results;
+        } finally {
+            batch.values().forEach(counter -> counter.lock.unlock());
+            rotationLock.readLock().unlock();
+        }
+    }
+
+    public BeerDTO beerOf(Long id) {
+        StockCounter counter = counters.get(id);
+        return counter == null ? null : counter.toDTO(counter.quantity);
+    }
+
+    public synchronized void flush() {
+        Map<Long, Integer> deltas = new HashMap<>();
+        long segment;
+
+        rotationLock.writeLock().lock();
+        try {
+            counters.forEach((id, counter) -> {
+                int delta = counter.pending.getAndSet(0);
+                if (delta != 0) deltas.put(id, delta);
+            });
+            if (deltas.isEmpty()) return;
+            segment = appendLog.rotate();
+        } catch (IOException e) {
+            log.error("Could not rotate the stock ledger log, retrying on next flush", e);
+            restore(deltas);
+            return;
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+
+        try {
+            write(deltas, segment);
+        } catch (RuntimeException e) {
+            log.error("Could not flush stock ledger segment {}, retrying on next flush", segment, e);
+            restore(deltas);
+            return;
+        }
+        deleteUpTo(segment);
+    }
+
+    private BeerDTO adjust(Long id, int delta) throws BeerNotFoundException {
+        StockCounter counter = counterOf(id);
+
+        rotationLock.readLock().lock();
+        try {
+            int adjustedQuantity = counter.add(delta, true);
+            if (adjustedQuantity < 0) return null;
+
+            try {
+                appendLog.append(id, delta);
+            } catch (IOException e) {
+                counter.add(-delta, false);
+                throw new UncheckedIOException(e);
+            }
+            counter.pending.addAndGet(delta);
+
+            return counter.toDTO(adjustedQuantity);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+    }
+
+    private static StockOperationResultDTO toResult(StockOperationDTO operation, StockOperationStatus status, Integer quantity) {
+        return StockOperationResultDTO.builder()
+                .id(operation.getId())
+                .delta(operation.getDelta())
+                .status(status)
+                .quantity(quantity)
+                .build();
+    }
+
+    private StockCounter counterOf(Long id) throws BeerNotFoundException {
+        StockCounter counter = counters.get(id);
+        if (counter != null) return counter;
+
+        Beer beer = beerRepository.findById(id).orElseThrow(() -> new BeerNotFoundException(id));
+        return counters.computeIfAbsent(id, key -> new StockCounter(beer));
+    }
+
+    private long recover() throws IOException {
+        long checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                .map(StockLedgerCheckpoint::getSegment)
+                .orElse(0L);
+
+        Map<Long, Integer> deltas = new HashMap<>();
+        long lastSegment = checkpoint;
+        for (long segment : appendLog.segments()) {
+            if (segment <= checkpoint) continue;
+            appendLog.read(segment).forEach((id, delta) -> deltas.merge(id, delta, Integer::sum));
+            lastSegment = segment;
+        }
+
+        if (lastSegment > checkpoint) {
+            log.info("Replaying {} unflushed stock ledger deltas up to segment {}", deltas.size(), lastSegment);
+            write(deltas, lastSegment);
+        }
+        deleteUpTo(lastSegment);
+        return lastSegment;
+    }
+
+    private void write(Map<Long, Integer> deltas, long segment) {
+        List<Object[]> batch = deltas.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .collect(Collectors.toList());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+            checkpointRepository.save(new StockLedgerCheckpoint(CHECKPOINT_NAME, segment));
+        });
+    }
+
+    private void restore(Map<Long, Integer> deltas) {
+        deltas.forEach((id, delta) -> {
+            StockCounter counter = counters.get(id);
+            if (counter != null) counter.pending.addAndGet(delta);
+        });
+    }
+
+    private void deleteUpTo(long segment) {
+        try {
+            appendLog.deleteUpTo(segment);
+        } catch (IOException e) {
+            log.warn("Could not delete flushed stock ledger segments up to {}", segment, e);
+        }
+    }
+
+    /**
+     * Copies the few beer fields an adjustment answers with instead of holding the entity, which
+     * would be detached and stale.
+     */
+    private static final class StockCounter {
+        private final Long id;
+        private final String name;
+        private final String brand;
+        private final BeerType type;
+        private final int max;
+        private final int reserved;
+        private final int located;
+        private final int floor;
+        private final int ceiling;
+        private volatile Integer reorderPoint;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile int quantity;
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private StockCounter(Beer beer) {
+            this.id = beer.getId();
+            this.name = beer.getName();
+            this.brand = beer.getBrand();
+            this.type = beer.getType();
+            this.max = beer.getMax();
+            this.reserved = beer.getReserved();
+            this.located = beer.getLocated();
+            // Reservations are refused in ledger mode, so units held before it was enabled stay put.
+            this.floor = beer.getReserved() + beer.getLocated();
+            this.ceiling = beer.getMax() + beer.getLocated() - beer.getAllotted();
+            this.reorderPoint = beer.getReorderPoint();
+            this.quantity = beer.getQuantity();
+        }
+
+        private BeerDTO toDTO(int quantity) {
+            return BeerDTO.builder()
+                    .id(id)
+                    .name(name)
+                    .brand(brand)
+                    .type(type)
+                    .max(max)
+                    .reorderPoint(reorderPoint)
+                    .quantity(quantity)
+                    .reserved(reserved)
+                    .located(located)
+                    .build();
+        }
+
+        private int add(int delta, boolean bounded) {
+            lock.lock();
+            try {
+                int adjusted = quantity + delta;
+                if (bounded && (adjusted < floor || adjusted > ceiling)) return -1;
+                quantity = adjusted;
+                return adjusted;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.beerstock.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of stock deltas, split in numbered segments.
+ */
+public class StockLedgerLog implements Closeable {
+    private static final int RECORD_SIZE = Long.BYTES + Integer.BYTES;
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.log");
+
+    private final Path directory;
+    private final boolean syncOnAppend;
+    private final AtomicLong written = new AtomicLong();
+    private final Object syncLock = new Object();
+
+    private FileChannel channel;
+    private long activeSegment;
+    private long synced;
+    private boolean syncing;
+
+    public StockLedgerLog(Path directory, boolean syncOnAppend) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.syncOnAppend = syncOnAppend;
+    }
+
+    public void open(long lastSegment) throws IOException {
+        List<Long> segments = segments();
+        long lastOnDisk = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        activeSegment = Math.max(lastSegment, lastOnDisk) + 1;
+        channel = openChannel(activeSegment);
+    }
+
+    public void append(long beerId, int delta) throws IOException {
+        write(ByteBuffer.allocate(RECORD_SIZE).putLong(beerId).putInt(delta).flip());
+    }
+
+    public void append(Map<Long, Integer> deltas) throws IOException {
+        ByteBuffer records = ByteBuffer.allocate(RECORD_SIZE * deltas.size());
+        deltas.forEach((beerId, delta) -> records.putLong(beerId).putInt(delta));
+        write(records.flip());
+    }
+
+    public long rotate() throws IOException {
+        long sealedSegment = activeSegment;
+        channel.force(false);
+        synchronized (syncLock) {
+            synced = written.get();
+        }
+        channel.close();
+        activeSegment = sealedSegment + 1;
+        channel = openChannel(activeSegment);
+        return sealedSegment;
+    }
+
+    public List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> SEGMENT_FILE.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    public Map<Long, Integer> read(long segment) throws IOException {
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(segmentFile(segment)));
+        Map<Long, Integer> deltas = new HashMap<>();
+        while (content.remaining() >= RECORD_SIZE) {
+            deltas.merge(content.getLong(), content.getInt(), Integer::sum);
+        }
+        return deltas;
+    }
+
+    public void deleteUpTo(long segment) throws IOException {
+        for (long existing : segments()) {
+            if (existing <= segment && existing != activeSegment) Files.deleteIfExists(segmentFile(existing));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null && channel.isOpen()) channel.close();
+    }
+
+    private void write(ByteBuffer records) throws IOException {
+        while (records.hasRemaining()) channel.write(records);
+        long sequence = written.incrementAndGet();
+        if (syncOnAppend) awaitSync(sequence);
+    }
+
+    private void awaitSync(long sequence) throws IOException {
+        while (true) {
+            long target;
+            synchronized (syncLock) {
+                while (syncing && synced < sequence) {
+                    try {
+                        syncLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while waiting for the stock ledger log to sync");
+                    }
+                }
+                if (synced >= sequence) return;
+                syncing = true;
+                target = written.get();
+            }
+
+            boolean forced = false;
+            try {
+                channel.force(false);
+                forced = true;
+            } finally {
+                synchronized (syncLock) {
+                    syncing = false;
+                    if (forced) synced = Math.max(synced, target);
+                    syncLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private FileChannel openChannel(long segment) throws IOException {
+        return FileChannel.open(segmentFile(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentFile(long segment) {
+        return directory.resolve(String.format("segment-%020d.log", segment));
+    }
+}
@@ -0,0 +1,170 @@
+package com.beerstock.services;
+
+import com.beerstock.config.StockReservationProperties;
+import com.beerstock.dtos.ReservationDTO;
+import com.beerstock.entities.StockReservation;
+import com.beerstock.exceptions.BeerStockUnavailableException;
+import com.beerstock.exceptions.ReservationNotFoundException;
+import com.beerstock.mappers.BeerMapper;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.repositories.StockReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Holds units of a beer for a while so a checkout can take them later with a single write,
+ * instead of decrementing up front and incrementing back when it is abandoned.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class StockReservations {
+    private final StockReservationRepository reservationRepository;
+    private final BeerRepository beerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskScheduler taskScheduler;
+    private final StockReservationProperties properties;
+    private final Clock clock;
+    private final Map<String, StockReservation> reservations = new ConcurrentHashMap<>();
+    private final TimingWheel<String> expiries;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private ScheduledFuture<?> expiryTask;
+
+    public StockReservations(StockReservationRepository reservationRepository, BeerRepository beerRepository, TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher, TaskScheduler taskScheduler, StockReservationProperties properties) {
+        this(reservationRepository, beerRepository, transactionTemplate, eventPublisher, taskScheduler, properties, Clock.systemUTC());
+    }
+
+    StockReservations(StockReservationRepository reservationRepository, BeerRepository beerRepository, TransactionTemplate transactionTemplate,
+                      ApplicationEventPublisher eventPublisher, TaskScheduler taskScheduler, StockReservationProperties properties, Clock clock) {
+        this.reservationRepository = reservationRepository;
+        this.beerRepository = beerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.taskScheduler = taskScheduler;
+        this.properties = properties;
+        this.clock = clock;
+        this.expiries = new TimingWheel<>(properties.getWheelSize(), properties.getTick().toMillis(), clock.millis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reservationRepository.findAll().forEach(this::index);
+        expiryTask = taskScheduler.scheduleWithFixedDelay(this::expire, properties.getTick());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (expiryTask != null) expiryTask.cancel(false);
+    }
+
+    public ReservationDTO reserve(Long beerId, int quantity, Duration ttl) throws BeerStockUnavailableException {
+        Duration hold = ttl == null ? properties.getDefaultTtl() : ttl.compareTo(properties.getMaxTtl()) > 0 ? properties.getMaxTtl() : ttl;
+        StockReservation reservation = new StockReservation(UUID.randomUUID().toString(), beerId, quantity, clock.instant().plus(hold));
+        boolean reserved = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (beerRepository.reserve(beerId, quantity) == 0) return false;
+            reservationRepository.save(reservation);
+            return true;
+        }));
+        if (!reserved) throw new BeerStockUnavailableException(beerId, quantity);
+
+        index(reservation);
+        changed(beerId);
+        return toDTO(reservation);
+    }
+
+    public ReservationDTO commit(String id) throws ReservationNotFoundException {
+        StockReservation reservation = find(id);
+        boolean committed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (reservationRepository.deleteUnexpired(id, clock.instant()) == 0) return false;
+            if (beerRepository.commitReserved(reservation.getBeerId(), reservation.getQuantity()) == 0) {
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        }));
+        if (!committed) throw new ReservationNotFoundException(id);
+
+        forget(id);
+        return toDTO(reservation);
+    }
+
+    public ReservationDTO release(String id) throws ReservationNotFoundException {
+        StockReservation reservation = find(id);
+        if (!settle(reservation)) throw new ReservationNotFoundException(id);
+        return toDTO(reservation);
+    }
+
+    public void onBeerDeleted(Long beerId) {
+        reservationRepository.deleteByBeerId(beerId);
+        reservations.values().removeIf(reservation -> reservation.getBeerId().equals(beerId));
+    }
+
+    void expire() {
+        for (String id : expiries.advance(clock.millis())) {
+            StockReservation reservation = reservations.get(id);
+            if (reservation == null) continue;
+            try {
+                settle(reservation);
+            } catch (RuntimeException e) {
+                log.warn("Could not release expired reservation {}, retrying on the next tick", id, e);
+                expiries.schedule(id, clock.millis());
+            }
+        }
+    }
+
+    int openReservations() {
+        return reservations.size();
+    }
+
+    private boolean settle(StockReservation reservation) {
+        boolean released = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (reservationRepository.deleteReservation(reservation.getId()) == 0) return false;
+            beerRepository.releaseReserved(reservation.getBeerId(), reservation.getQuantity());
+            return true;
+        }));
+        forget(reservation.getId());
+        if (released) changed(reservation.getBeerId());
+        return released;
+    }
+
+    private StockReservation find(String id) throws ReservationNotFoundException {
+        StockReservation reservation = reservations.get(id);
+        if (reservation != null) return reservation;
+        return reservationRepository.findById(id).orElseThrow(() -> new ReservationNotFoundException(id));
+    }
+
+    private void index(StockReservation reservation) {
+        reservations.put(reservation.getId(), reservation);
+        expiries.schedule(reservation.getId(), reservation.getExpiresAt().toEpochMilli());
+    }
+
+    private void forget(String id) {
+        reservations.remove(id);
+        expiries.cancel(id);
+    }
+
+    private void changed(Long beerId) {
+        beerRepository.findById(beerId).ifPresent(beer -> eventPublisher.publishEvent(BeerChangedEvent.updated(beerMapper.toDTO(beer))));
+    }
+
+    private ReservationDTO toDTO(StockReservation reservation) {
+        return new ReservationDTO(reservation.getId(), reservation.getBeerId(), reservation.getQuantity(), reservation.getExpiresAt());
+    }
+}
@@ -0,0 +1,105 @@
+package com.beerstock.services;
+
+import com.beerstock.entities.Beer;
+import com.beerstock.entities.BeerStockShard;
+import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.repositories.BeerStockShardRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sharded quantity model for hot beers.
+ */
+@Service
+@Profile("!reactive")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class StockShards {
+    private final BeerStockShardRepository shardRepository;
+    private final BeerRepository beerRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public int quantity(Long beerId) {
+        return (int) shardRepository.sumQuantity(beerId);
+    }
+
+    public boolean reshard(Long beerId, int shards) throws BeerNotFoundException {
+        Boolean resharded = transactionTemplate.execute(status -> {
+            Beer beer = beerRepository.findByIdForUpdate(beerId).orElse(null);
+            if (beer == null) return null;
+            if (beer.getReserved() > 0 || beer.getAllotted() > 0) return false;
+            int quantity = beer.getQuantity() + shardRepository.findByBeerIdOrderByShard(beerId).stream()
+                    .mapToInt(BeerStockShard::getQuantity)
+                    .sum();
+
+            shardRepository.deleteByBeerId(beerId);
+            beer = beerRepository.findById(beerId).orElse(null);
+            if (beer == null) return null;
+            beer.setShards(shards);
+            if (shards == 1) {
+                beer.setQuantity(quantity);
+                return true;
+            }
+
+            beer.setQuantity(0);
+            List<BeerStockShard> beerShards = new ArrayList<>(shards);
+            for (int shard = 0; shard < shards; shard++) {
+                beerShards.add(new BeerStockShard(null, beerId, shard, share(quantity, shards, shard), share(beer.getMax(), shards, shard)));
+            }
+            shardRepository.saveAll(beerShards);
+            return true;
+        });
+        if (resharded == null) throw new BeerNotFoundException(beerId);
+        return resharded;
+    }
+
+    public boolean adjust(Beer beer, int delta) {
+        int shards = beer.getShards();
+        int first = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            if (shardRepository.adjustQuantity(beer.getId(), (first + i) % shards, delta) > 0) return true;
+        }
+        // The beer may have been resharded since it was read, so the count is checked again under its lock.
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Beer current = beerRepository.findByIdForUpdate(beer.getId()).orElse(null);
+            if (current == null) return false;
+            return current.getShards() > 1 ? spread(beer.getId(), delta) : beerRepository.adjustQuantity(beer.getId(), delta) > 0;
+        }));
+    }
+
+    /**
+     * Must be called inside a transaction.
+     */
+    public boolean spread(Long beerId, int delta) {
+        List<BeerStockShard> shards = shardRepository.findByBeerIdOrderByShard(beerId);
+        int available = shards.stream()
+                .mapToInt(shard -> delta >= 0 ? shard.getCapacity() - shard.getQuantity() : shard.getQuantity())
+                .sum();
+        if (available < Math.abs(delta)) return false;
+
+        int remaining = delta;
+        for (BeerStockShard shard : shards) {
+            int taken = remaining >= 0
+                    ? Math.min(remaining, shard.getCapacity() - shard.getQuantity())
+                    : Math.max(remaining, -shard.getQuantity());
+            shard.setQuantity(shard.getQuantity() + taken);
+            remaining -= taken;
+        }
+        return true;
+    }
+
+    public void delete(Long beerId) {
+        shardRepository.deleteByBeerId(beerId);
+    }
+
+    private int share(int total, int shards, int shard) {
+        return total / shards + (shard < total % shards ? 1 : 0);
+    }
+}
@@ -0,0 +1,58 @@
+package com.beerstock.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel.
+ */
+final class TimingWheel<K> {
+    private final long tickMillis;
+    private final List<Map<K, Long>> slots;
+    private final Map<K, Map<K, Long>> slotOf = new HashMap<>();
+    private long currentTick;
+
+    TimingWheel(int size, long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) slots.add(new HashMap<>());
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long tick = Math.max(-Math.floorDiv(-deadlineMillis, tickMillis), currentTick + 1);
+        Map<K, Long> slot = slots.get((int) (tick % slots.size()));
+        slot.put(key, tick);
+        slotOf.put(key, slot);
+    }
+
+    synchronized void cancel(K key) {
+        Map<K, Long> slot = slotOf.remove(key);
+        if (slot != null) slot.remove(key);
+    }
+
+    synchronized List<K> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        for (long tick = Math.max(currentTick + 1, target - slots.size() + 1); tick <= target; tick++) {
+            Iterator<Map.Entry<K, Long>> entries = slots.get((int) (tick % slots.size())).entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<K, Long> entry = entries.next();
+                if (entry.getValue() > target) continue;
+                expired.add(entry.getKey());
+                slotOf.remove(entry.getKey());
+                entries.remove();
+            }
+        }
+        currentTick = Math.max(currentTick, target);
+        return expired;
+    }
+
+    synchronized int size() {
+        return slotOf.size();
+    }
+}
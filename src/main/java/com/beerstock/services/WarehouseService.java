@@ -0,0 +1,237 @@
+package com.beerstock.services;
+
+import com.beerstock.config.WarehouseProperties;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.BeerLocationsDTO;
+import com.beerstock.dtos.WarehouseDTO;
+import com.beerstock.dtos.WarehouseStockDTO;
+import com.beerstock.entities.Beer;
+import com.beerstock.entities.Warehouse;
+import com.beerstock.entities.WarehouseStock;
+import com.beerstock.exceptions.BeerNegativeQuantityException;
+import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.exceptions.BeerStockExceededException;
+import com.beerstock.exceptions.WarehouseAlreadyRegisteredException;
+import com.beerstock.exceptions.WarehouseNotFoundException;
+import com.beerstock.exceptions.WarehouseStockNotSupportedException;
+import com.beerstock.mappers.BeerMapper;
+import com.beerstock.mappers.WarehouseMapper;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.repositories.WarehouseRepository;
+import com.beerstock.repositories.WarehouseStockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Stock of beers per warehouse.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class WarehouseService {
+    private static final String ROLLUP_SQL = "update beer set quantity = quantity + ?, located = located + ?, version = version + 1 where id = ?";
+    private static final String RECONCILE_SQL = "update beer b set " +
+            "quantity = quantity - located + (select coalesce(sum(s.quantity), 0) from warehouse_stock s where s.beer_id = b.id), " +
+            "located = (select coalesce(sum(s.quantity), 0) from warehouse_stock s where s.beer_id = b.id), " +
+            "allotted = (select coalesce(sum(s.capacity), 0) from warehouse_stock s where s.beer_id = b.id)";
+
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseStockRepository stockRepository;
+    private final BeerRepository beerRepository;
+    private final WarehouseStockView stockView;
+    private final ObjectProvider<StockLedger> stockLedger;
+    private final StockShards stockShards;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskScheduler taskScheduler;
+    private final WarehouseProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConcurrentMap<Long, AtomicInteger> pending = new ConcurrentHashMap<>();
+    private final WarehouseMapper warehouseMapper = WarehouseMapper.INSTANCE;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private ScheduledFuture<?> rollupTask;
+
+    @PostConstruct
+    public void start() {
+        jdbcTemplate.update(RECONCILE_SQL);
+        rollupTask = taskScheduler.scheduleWithFixedDelay(this::rollUp, properties.getRollupInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (rollupTask != null) rollupTask.cancel(false);
+        rollUp();
+    }
+
+    public WarehouseDTO create(WarehouseDTO warehouseDTO) throws WarehouseAlreadyRegisteredException {
+        if (warehouseRepository.findByCode(warehouseDTO.getCode()).isPresent()) {
+            throw new WarehouseAlreadyRegisteredException(warehouseDTO.getCode());
+        }
+        Warehouse warehouse = warehouseRepository.save(warehouseMapper.toModel(warehouseDTO));
+        return warehouseMapper.toDTO(warehouse);
+    }
+
+    public List<WarehouseDTO> listAll() {
+        return warehouseRepository.findAll().stream().map(warehouseMapper::toDTO).collect(Collectors.toList());
+    }
+
+    public BeerLocationsDTO locations(Long beerId) throws BeerNotFoundException {
+        return toLocations(toDTO(verifyIfExists(beerId)));
+    }
+
+    public BeerLocationsDTO increment(Long beerId, String code, int quantityToIncrement)
+            throws BeerNotFoundException, WarehouseNotFoundException, BeerStockExceededException, WarehouseStockNotSupportedException {
+        Warehouse warehouse = verifyIfExists(code);
+        verifyIfLocatable(verifyIfExists(beerId));
+        if (stockRepository.adjustQuantity(warehouse.getId(), beerId, quantityToIncrement) == 0
+                && !Boolean.TRUE.equals(transactionTemplate.execute(status -> allot(beerId, warehouse.getId(), quantityToIncrement)))) {
+            verifyIfLocatable(verifyIfExists(beerId));
+            throw new BeerStockExceededException(beerId, quantityToIncrement);
+        }
+        return adjusted(beerId, code, quantityToIncrement);
+    }
+
+    public BeerLocationsDTO decrement(Long beerId, String code, int quantityToDecrement)
+            throws BeerNotFoundException, WarehouseNotFoundException, BeerNegativeQuantityException, WarehouseStockNotSupportedException {
+        Warehouse warehouse = verifyIfExists(code);
+        verifyIfLocatable(verifyIfExists(beerId));
+        if (stockRepository.adjustQuantity(warehouse.getId(), beerId, -quantityToDecrement) == 0) {
+            throw new BeerNegativeQuantityException(beerId, quantityToDecrement);
+        }
+        return adjusted(beerId, code, -quantityToDecrement);
+    }
+
+    public int reclaim(Long beerId) {
+        Integer reclaimed = transactionTemplate.execute(status -> {
+            Beer beer = beerRepository.findByIdForUpdate(beerId).orElse(null);
+            if (beer == null) return 0;
+            return reclaimIdle(beer, stockRepository.findByBeerIdForUpdate(beerId), null);
+        });
+        return reclaimed == null ? 0 : reclaimed;
+    }
+
+    public void overlay(BeerDTO beerDTO) {
+        int located = stockView.total(beerDTO.getId());
+        beerDTO.setQuantity(beerDTO.getQuantity() - beerDTO.getLocated() + located);
+        beerDTO.setLocated(located);
+    }
+
+    public synchronized void rollUp() {
+        Map<Long, Integer> deltas = new HashMap<>();
+        pending.forEach((id, delta) -> {
+            int taken = delta.getAndSet(0);
+            if (taken != 0) deltas.put(id, taken);
+        });
+        if (deltas.isEmpty()) return;
+
+        List<Object[]> batch = deltas.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getValue(), entry.getKey()})
+                .collect(Collectors.toList());
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(ROLLUP_SQL, batch));
+        } catch (RuntimeException e) {
+            log.error("Could not roll up the warehouse stock of {} beers, retrying on next run", deltas.size(), e);
+            deltas.forEach((id, delta) -> {
+                AtomicInteger counter = pending.get(id);
+                if (counter != null) counter.addAndGet(delta);
+            });
+        }
+    }
+
+    public void onBeerDeleted(Long beerId) {
+        pending.remove(beerId);
+        stockRepository.deleteByBeerId(beerId);
+        stockView.onBeerDeleted(beerId);
+    }
+
+    private boolean allot(Long beerId, Long warehouseId, int delta) {
+        Beer beer = beerRepository.findByIdForUpdate(beerId).orElse(null);
+        if (beer == null || beer.getShards() > 1) return false;
+        List<WarehouseStock> stocks = stockRepository.findByBeerIdForUpdate(beerId);
+        WarehouseStock stock = stocks.stream()
+                .filter(candidate -> candidate.getWarehouseId().equals(warehouseId))
+                .findFirst()
+                .orElseGet(() -> new WarehouseStock(null, warehouseId, beerId, 0, 0));
+
+        int needed = stock.getQuantity() + delta - stock.getCapacity();
+        int unassigned = beer.getQuantity() - beer.getLocated();
+        if (needed > 0 && unassigned + beer.getAllotted() + needed > beer.getMax()) {
+            reclaimIdle(beer, stocks, warehouseId);
+            if (unassigned + beer.getAllotted() + needed > beer.getMax()) return false;
+        }
+        if (needed > 0) {
+            stock.setCapacity(stock.getCapacity() + needed);
+            beer.setAllotted(beer.getAllotted() + needed);
+        }
+        stock.setQuantity(stock.getQuantity() + delta);
+        stockRepository.save(stock);
+        return true;
+    }
+
+    private int reclaimIdle(Beer beer, List<WarehouseStock> stocks, Long keptWarehouseId) {
+        int reclaimed = 0;
+        for (WarehouseStock stock : stocks) {
+            if (stock.getWarehouseId().equals(keptWarehouseId)) continue;
+            reclaimed += stock.getCapacity() - stock.getQuantity();
+            stock.setCapacity(stock.getQuantity());
+        }
+        beer.setAllotted(beer.getAllotted() - reclaimed);
+        return reclaimed;
+    }
+
+    private BeerLocationsDTO adjusted(Long beerId, String code, int delta) throws BeerNotFoundException {
+        stockView.onAdjusted(beerId, code, delta);
+        pending.computeIfAbsent(beerId, id -> new AtomicInteger()).addAndGet(delta);
+        BeerDTO beerDTO = toDTO(verifyIfExists(beerId));
+        eventPublisher.publishEvent(BeerChangedEvent.adjusted(beerDTO, delta));
+        return toLocations(beerDTO);
+    }
+
+    private BeerLocationsDTO toLocations(BeerDTO beerDTO) {
+        List<WarehouseStockDTO> warehouses = stockView.quantities(beerDTO.getId()).entrySet().stream()
+                .map(entry -> new WarehouseStockDTO(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        return new BeerLocationsDTO(beerDTO.getId(), beerDTO.getQuantity(), beerDTO.getQuantity() - beerDTO.getLocated(), warehouses);
+    }
+
+    private BeerDTO toDTO(Beer beer) {
+        BeerDTO beerDTO = beerMapper.toDTO(beer);
+        if (beer.getShards() > 1) beerDTO.setQuantity(stockShards.quantity(beer.getId()));
+        StockLedger ledger = stockLedger.getIfAvailable();
+        if (ledger != null) return ledger.overlay(beerDTO);
+        overlay(beerDTO);
+        return beerDTO;
+    }
+
+    private void verifyIfLocatable(Beer beer) throws WarehouseStockNotSupportedException {
+        if (beer.getShards() > 1 || stockLedger.getIfAvailable() != null) throw new WarehouseStockNotSupportedException(beer.getId());
+    }
+
+    private Beer verifyIfExists(Long beerId) throws BeerNotFoundException {
+        return beerRepository.findById(beerId).orElseThrow(() -> new BeerNotFoundException(beerId));
+    }
+
+    private Warehouse verifyIfExists(String code) throws WarehouseNotFoundException {
+        return warehouseRepository.findByCode(code).orElseThrow(() -> new WarehouseNotFoundException(code));
+    }
+}
@@ -0,0 +1,66 @@
+package com.beerstock.services;
+
+import com.beerstock.entities.Warehouse;
+import com.beerstock.entities.WarehouseStock;
+import com.beerstock.repositories.WarehouseRepository;
+import com.beerstock.repositories.WarehouseStockRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Stock of every beer per warehouse code, held in memory.
+ */
+@Component
+@Profile("!reactive")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class WarehouseStockView {
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseStockRepository stockRepository;
+    private final Map<Long, Map<String, AtomicInteger>> byBeer = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<Long, String> codes = warehouseRepository.findAll().stream()
+                .collect(Collectors.toMap(Warehouse::getId, Warehouse::getCode));
+        byBeer.clear();
+        for (WarehouseStock stock : stockRepository.findAll()) {
+            quantity(stock.getBeerId(), codes.get(stock.getWarehouseId())).set(stock.getQuantity());
+        }
+    }
+
+    public void onAdjusted(Long beerId, String warehouse, int delta) {
+        quantity(beerId, warehouse).addAndGet(delta);
+    }
+
+    public void onBeerDeleted(Long beerId) {
+        byBeer.remove(beerId);
+    }
+
+    public SortedMap<String, Integer> quantities(Long beerId) {
+        SortedMap<String, Integer> quantities = new TreeMap<>();
+        Map<String, AtomicInteger> warehouses = byBeer.get(beerId);
+        if (warehouses != null) warehouses.forEach((warehouse, quantity) -> quantities.put(warehouse, quantity.get()));
+        return quantities;
+    }
+
+    public int total(Long beerId) {
+        Map<String, AtomicInteger> warehouses = byBeer.get(beerId);
+        return warehouses == null ? 0 : warehouses.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    private AtomicInteger quantity(Long beerId, String warehouse) {
+        return byBeer.computeIfAbsent(beerId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(warehouse, code -> new AtomicInteger());
+    }
+}
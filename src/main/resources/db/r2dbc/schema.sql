@@ -0,0 +1,14 @@
+create table if not exists beer (
+    id bigint generated by default as identity primary key,
+    name varchar(255) not null unique,
+    brand varchar(255) not null,
+    quantity integer not null,
+    max integer not null,
+    type varchar(255) not null,
+    version bigint,
+    shards integer not null default 1,
+    reorder_point integer,
+    reserved integer not null default 0,
+    located integer not null default 0,
+    allotted integer not null default 0
+);
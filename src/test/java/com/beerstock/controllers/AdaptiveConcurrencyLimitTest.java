@@ -0,0 +1,77 @@
+package com.beerstock.controllers;
+
+import com.beerstock.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class AdaptiveConcurrencyLimitTest {
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+    private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+            new ConcurrencyLimitProperties.Budget(4, 1, 6, Duration.ofMillis(100), 0.5));
+
+    @Test
+    void whenTheLimitIsReachedThenFurtherRequestsAreRejected() {
+        for (int i = 0; i < 4; i++) assertThat(limit.tryAcquire(), equalTo(true));
+
+        assertThat(limit.tryAcquire(), equalTo(false));
+        assertThat(limit.snapshot().getInFlight(), equalTo(4));
+        assertThat(limit.snapshot().getRejected(), equalTo(1L));
+    }
+
+    @Test
+    void whenAFullLimitOfBusyRequestsIsFastThenTheLimitGrowsByLessThanOne() {
+        for (int i = 0; i < 4; i++) limit.tryAcquire();
+        for (int i = 0; i < 4; i++) limit.release(0, FAST);
+
+        assertThat(limit.snapshot().getLimit(), equalTo(4));
+        assertThat(limit.snapshot().getInFlight(), equalTo(0));
+    }
+
+    @Test
+    void whenBusyRequestsKeepBeingFastThenTheLimitGrowsUpToTheMaximum() {
+        for (int round = 0; round < 50; round++) {
+            int admitted = 0;
+            while (limit.tryAcquire()) admitted++;
+            for (int i = 0; i < admitted; i++) limit.release(0, FAST);
+        }
+
+        assertThat(limit.snapshot().getLimit(), equalTo(6));
+    }
+
+    @Test
+    void whenRequestsAreFastButFewThenTheLimitStays() {
+        limit.tryAcquire();
+        limit.release(0, FAST);
+
+        assertThat(limit.snapshot().getLimit(), equalTo(4));
+    }
+
+    @Test
+    void whenRequestsInFlightTogetherAreSlowThenTheLimitBacksOffOnce() {
+        for (int i = 0; i < 4; i++) limit.tryAcquire();
+        for (int i = 0; i < 4; i++) limit.release(0, SLOW + i);
+
+        assertThat(limit.snapshot().getLimit(), equalTo(2));
+    }
+
+    @Test
+    void whenRequestsKeepBeingSlowThenTheLimitBacksOffDownToTheMinimum() {
+        limit.tryAcquire();
+        limit.release(0, SLOW);
+        assertThat(limit.snapshot().getLimit(), equalTo(2));
+
+        limit.tryAcquire();
+        limit.release(SLOW, 2 * SLOW);
+        assertThat(limit.snapshot().getLimit(), equalTo(1));
+
+        limit.tryAcquire();
+        limit.release(2 * SLOW, 3 * SLOW);
+        assertThat(limit.snapshot().getLimit(), equalTo(1));
+    }
+}
@@ -0,0 +1,12 @@
+package com.beerstock.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "beerstock.async.enabled=true")
+class AsyncRequestLoadBenchmarkTest extends RequestExecutionLoadBenchmark {
+    @Test
+    void measureThroughput() {
+        run("async");
+    }
+}
@@ -3,32 +3,53 @@ package com.beerstock.controllers;
 import com.beerstock.builders.BeerDTOBuilder;
 import com.beerstock.builders.QuantityDTOBuilder;
 import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.BeerPageDTO;
+import com.beerstock.dtos.ImportErrorDTO;
+import com.beerstock.dtos.ImportReportDTO;
 import com.beerstock.dtos.QuantityDTO;
+import com.beerstock.dtos.StockAdjustmentDTO;
+import com.beerstock.dtos.StockOperationDTO;
+import com.beerstock.dtos.StockOperationResultDTO;
+import com.beerstock.enums.StockOperationStatus;
 import com.beerstock.exceptions.BeerNegativeQuantityException;
 import com.beerstock.exceptions.BeerNotFoundException;
 import com.beerstock.exceptions.BeerStockExceededException;
+import com.beerstock.services.BeerCatalogImporter;
+import com.beerstock.services.BeerCsv;
 import com.beerstock.services.BeerService;
+import com.beerstock.services.StockAdjustmentService;
+import com.beerstock.services.StockEventBroadcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static com.beerstock.utils.JsonConverter.asJsonString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,12 +57,26 @@ class BeerControllerTest {
     private static final String BEER_API_URL = "/api/v1/beers";
     private static final String BEER_API_SUB_PATH_INCREMENT = "/increment";
     private static final String BEER_API_SUB_PATH_DECREMENT = "/decrement";
+    private static final String BEER_API_SUB_PATH_STOCK = "/stock";
+    private static final String CATALOG_VERSION = "1-1";
 
     private MockMvc mockMvc;
 
     @Mock
     private BeerService beerService;
 
+    @Mock
+    private StockAdjustmentService stockAdjustmentService;
+
+    @Mock
+    private StockEventBroadcaster stockEvents;
+
+    @Mock
+    private BeerCatalogImporter catalogImporter;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private BeerController beerController;
 
@@ -92,7 +127,23 @@ class BeerControllerTest {
                 .andExpect(jsonPath("$.brand", is(beerDTO.getBrand())))
                 .andExpect(jsonPath("$.type", is(beerDTO.getType().toString())))
                 .andExpect(jsonPath("$.quantity", is(beerDTO.getQuantity())))
-                .andExpect(jsonPath("$.max", is(beerDTO.getMax())));
+                .andExpect(jsonPath("$.max", is(beerDTO.getMax())))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void whenGetIsCalledWithTheCurrentBeerETagThenNotModifiedIsReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+        String eTag = mockMvc.perform(get(BEER_API_URL + "/" + beerDTO.getName()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(BEER_API_URL + "/" + beerDTO.getName())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
     }
 
     @Test
@@ -109,10 +160,12 @@ class BeerControllerTest {
     void whenGetIsCalledThenAListOfBeersIsReturned() throws Exception {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
+        when(beerService.catalogVersion()).thenReturn(CATALOG_VERSION);
         when(beerService.listAll()).thenReturn(List.of(beerDTO));
         mockMvc.perform(get(BEER_API_URL)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + CATALOG_VERSION + "\""))
                 .andExpect(jsonPath("$[0].name", is(beerDTO.getName())))
                 .andExpect(jsonPath("$[0].brand", is(beerDTO.getBrand())))
                 .andExpect(jsonPath("$[0].type", is(beerDTO.getType().toString())))
@@ -122,6 +175,7 @@ class BeerControllerTest {
 
     @Test
     void whenGetIsCalledThenAEmptyListIsReturned() throws Exception {
+        when(beerService.catalogVersion()).thenReturn(CATALOG_VERSION);
         when(beerService.listAll()).thenReturn(Collections.emptyList());
         mockMvc.perform(get(BEER_API_URL)
                 .contentType(MediaType.APPLICATION_JSON))
@@ -129,6 +183,114 @@ class BeerControllerTest {
                 .andExpect(jsonPath("$", empty()));
     }
 
+    @Test
+    void whenGetIsCalledWithTheCurrentCatalogETagThenNotModifiedIsReturnedWithoutListingBeers() throws Exception {
+        when(beerService.catalogVersion()).thenReturn(CATALOG_VERSION);
+        mockMvc.perform(get(BEER_API_URL)
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"" + CATALOG_VERSION + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(beerService, never()).listAll();
+    }
+
+    @Test
+    void whenGetIsCalledWithAPageSizeThenAPageOfBeersIsReturnedWithALinkToTheNextPage() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerService.catalogVersion()).thenReturn(CATALOG_VERSION);
+        when(beerService.listPage(null, 1)).thenReturn(new BeerPageDTO(List.of(beerDTO), beerDTO.getId()));
+        mockMvc.perform(get(BEER_API_URL + "?size=1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, "<http://localhost/api/v1/beers?size=1&after=1>; rel=\"next\""))
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())));
+    }
+
+    @Test
+    void whenGetIsCalledForTheLastPageThenNoLinkIsReturned() throws Exception {
+        when(beerService.catalogVersion()).thenReturn(CATALOG_VERSION);
+        when(beerService.listPage(1L, 10)).thenReturn(new BeerPageDTO(Collections.emptyList(), null));
+        mockMvc.perform(get(BEER_API_URL + "?after=1&size=10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andExpect(jsonPath("$", empty()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenGetIsCalledAcceptingNdjsonThenBeersAreStreamedOnePerLine() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        doAnswer(invocation -> {
+            Consumer<BeerDTO> consumer = invocation.getArgument(0);
+            consumer.accept(beerDTO);
+            consumer.accept(beerDTO);
+            return null;
+        }).when(beerService).streamAll(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get(BEER_API_URL)
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String line = asJsonString(beerDTO);
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenGetIsCalledAcceptingCsvThenBeersAreStreamedAfterAHeader() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().name("Colorado, Indica").build().toBeerDTO();
+
+        doAnswer(invocation -> {
+            Consumer<BeerDTO> consumer = invocation.getArgument(0);
+            consumer.accept(beerDTO);
+            return null;
+        }).when(beerService).streamAll(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get(BEER_API_URL)
+                .accept(BeerController.TEXT_CSV))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=beers.csv"))
+                .andExpect(content().string(BeerCsv.HEADER + "\n1,\"Colorado, Indica\",Ambev,10,50,LAGER,\n"));
+    }
+
+    @Test
+    void whenCsvIsPostedToImportThenTheImportReportIsReturned() throws Exception {
+        when(catalogImporter.importCsv(any(InputStream.class))).thenReturn(ImportReportDTO.builder()
+                .imported(1)
+                .failed(1)
+                .errors(List.of(new ImportErrorDTO(3, "max must not be null")))
+                .build());
+
+        mockMvc.perform(post(BEER_API_URL + "/import")
+                .contentType(BeerController.TEXT_CSV)
+                .content("name,brand,quantity,max,type\nBrahma,Ambev,10,50,LAGER\nSkol,Ambev,10,,PILSEN\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(3)));
+    }
+
+    @Test
+    void whenNdjsonIsPostedToImportThenItIsImportedAsNdjson() throws Exception {
+        when(catalogImporter.importNdjson(any(InputStream.class))).thenReturn(ImportReportDTO.builder().imported(1).build());
+
+        mockMvc.perform(post(BEER_API_URL + "/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(asJsonString(BeerDTOBuilder.builder().build().toBeerDTO()) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.errors", is(empty())));
+        verify(catalogImporter, never()).importCsv(any(InputStream.class));
+    }
+
     @Test
     void whenDeleteIsCalledWithBeerIdThenABeerIsDeleted() throws Exception {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
@@ -248,4 +410,47 @@ class BeerControllerTest {
                 .content(asJsonString(quantityDTO)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void whenPatchIsCalledToAdjustStockThenTheResultOfEachOperationIsReturned() throws Exception {
+        StockOperationDTO operation = StockOperationDTO.builder().id(1L).delta(5).build();
+        StockAdjustmentDTO stockAdjustmentDTO = StockAdjustmentDTO.builder().operations(List.of(operation)).build();
+        StockOperationResultDTO result = StockOperationResultDTO.builder()
+                .id(operation.getId())
+                .delta(operation.getDelta())
+                .status(StockOperationStatus.APPLIED)
+                .quantity(15)
+                .build();
+
+        when(stockAdjustmentService.adjust(stockAdjustmentDTO)).thenReturn(List.of(result));
+
+        mockMvc.perform(patch(BEER_API_URL + BEER_API_SUB_PATH_STOCK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(stockAdjustmentDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].status", is(StockOperationStatus.APPLIED.toString())))
+                .andExpect(jsonPath("$[0].quantity", is(15)));
+    }
+
+    @Test
+    void whenPatchIsCalledToAdjustStockWithAZeroDeltaThenAErrorIsReturned() throws Exception {
+        StockOperationDTO operation = StockOperationDTO.builder().id(1L).delta(0).build();
+        StockAdjustmentDTO stockAdjustmentDTO = StockAdjustmentDTO.builder().operations(List.of(operation)).build();
+
+        mockMvc.perform(patch(BEER_API_URL + BEER_API_SUB_PATH_STOCK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(stockAdjustmentDTO)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenPatchIsCalledToAdjustStockWithoutOperationsThenAErrorIsReturned() throws Exception {
+        StockAdjustmentDTO stockAdjustmentDTO = StockAdjustmentDTO.builder().operations(Collections.emptyList()).build();
+
+        mockMvc.perform(patch(BEER_API_URL + BEER_API_SUB_PATH_STOCK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(stockAdjustmentDTO)))
+                .andExpect(status().isBadRequest());
+    }
 }
\ No newline at end of file
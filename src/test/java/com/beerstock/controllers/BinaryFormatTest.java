@@ -0,0 +1,121 @@
+package com.beerstock.controllers;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.config.BinaryFormatConfig;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.enums.BeerType;
+import com.beerstock.services.BeerService;
+import com.beerstock.services.StockAdjustmentService;
+import com.beerstock.services.StockEventBroadcaster;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class BinaryFormatTest {
+    private static final String BEER_API_URL = "/api/v1/beers";
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private final ObjectMapper smileMapper = BinaryFormatConfig.smileObjectMapper(new Jackson2ObjectMapperBuilder());
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private BeerService beerService;
+
+    @Mock
+    private StockAdjustmentService stockAdjustmentService;
+
+    @Mock
+    private StockEventBroadcaster stockEvents;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private BeerController beerController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(beerController)
+                .setMessageConverters(
+                        new BinaryFormatConfig().smileHttpMessageConverter(new Jackson2ObjectMapperBuilder()),
+                        new MappingJackson2HttpMessageConverter())
+                .build();
+    }
+
+    @Test
+    void whenSmileIsAcceptedThenTheBeerIsEncodedWithTheTypeOrdinal() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().type(BeerType.IPA).build().toBeerDTO();
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+
+        byte[] body = mockMvc.perform(get(BEER_API_URL + "/" + beerDTO.getName()).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode beer = smileMapper.readTree(body);
+        assertThat(beer.get("type").asInt(), equalTo(BeerType.IPA.ordinal()));
+        assertThat(smileMapper.treeToValue(beer, BeerDTO.class), equalTo(beerDTO));
+    }
+
+    @Test
+    void whenJsonIsAcceptedThenTheTypeIsStillItsName() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().type(BeerType.IPA).build().toBeerDTO();
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+
+        mockMvc.perform(get(BEER_API_URL + "/" + beerDTO.getName()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.type", is(BeerType.IPA.name())));
+    }
+
+    @Test
+    void whenTheBeerIsServedAsJsonOrSmileThenBothCarryTheSameWeakETag() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+
+        String jsonETag = mockMvc.perform(get(BEER_API_URL + "/" + beerDTO.getName()).accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String smileETag = mockMvc.perform(get(BEER_API_URL + "/" + beerDTO.getName()).accept(SMILE))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(jsonETag, startsWith("W/\""));
+        assertThat(smileETag, equalTo(jsonETag));
+    }
+
+    @Test
+    void whenASmileBodyIsPostedThenTheBeerIsCreated() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        when(beerService.create(beerDTO)).thenReturn(beerDTO);
+
+        mockMvc.perform(post(BEER_API_URL)
+                .contentType(SMILE)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(smileMapper.writeValueAsBytes(beerDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name", is(beerDTO.getName())));
+    }
+}
@@ -0,0 +1,10 @@
+package com.beerstock.controllers;
+
+import org.junit.jupiter.api.Test;
+
+class BlockingRequestLoadBenchmarkTest extends RequestExecutionLoadBenchmark {
+    @Test
+    void measureThroughput() {
+        run("blocking");
+    }
+}
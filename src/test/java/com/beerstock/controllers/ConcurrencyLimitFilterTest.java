@@ -0,0 +1,103 @@
+package com.beerstock.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "beerstock.limits.enabled=true",
+        "beerstock.limits.retry-after=1500ms",
+        "beerstock.limits.mutations.initial-limit=1",
+        "beerstock.limits.mutations.min-limit=1",
+        "beerstock.limits.mutations.max-limit=1"
+})
+class ConcurrencyLimitFilterTest {
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void whenTheMutationBudgetIsUsedUpThenTheNextMutationIsShedWithRetryAfter() throws Exception {
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+
+        concurrencyLimitFilter.doFilter(request("PATCH", "/api/v1/beers/1/increment"), new MockHttpServletResponse(),
+                (request, response) -> concurrencyLimitFilter.doFilter(request("PATCH", "/api/v1/beers/2/decrement"), shed, (inner, innerResponse) -> {
+                }));
+
+        assertThat(shed.getStatus(), equalTo(HttpStatus.TOO_MANY_REQUESTS.value()));
+        assertThat(shed.getHeader(ConcurrencyLimitFilter.RETRY_AFTER), equalTo("2"));
+        assertThat(concurrencyLimitFilter.limits().get(ConcurrencyLimitFilter.MUTATIONS).getInFlight(), equalTo(0));
+    }
+
+    @Test
+    void whenTheMutationBudgetIsUsedUpThenReadsAndImportsStillPass() throws Exception {
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        MockHttpServletResponse imported = new MockHttpServletResponse();
+
+        concurrencyLimitFilter.doFilter(request("PATCH", "/api/v1/beers/1/increment"), new MockHttpServletResponse(), (request, response) -> {
+            concurrencyLimitFilter.doFilter(request("GET", "/api/v1/beers/Brahma"), read, (inner, innerResponse) -> {
+            });
+            concurrencyLimitFilter.doFilter(request("POST", "/api/v1/beers/import"), imported, (inner, innerResponse) -> {
+            });
+        });
+
+        assertThat(read.getStatus(), equalTo(HttpStatus.OK.value()));
+        assertThat(imported.getStatus(), equalTo(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void whenALongExportRunsAlongsideReadsThenTheReadLimitIsKept() throws Exception {
+        MockHttpServletRequest export = request("GET", "/api/v1/beers");
+        export.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE);
+        int limit = concurrencyLimitFilter.limits().get(ConcurrencyLimitFilter.READS).getLimit();
+
+        concurrencyLimitFilter.doFilter(export, new MockHttpServletResponse(), (request, response) -> {
+            for (int i = 0; i < 20; i++) {
+                MockHttpServletResponse read = new MockHttpServletResponse();
+                concurrencyLimitFilter.doFilter(request("GET", "/api/v1/beers/Brahma"), read, (inner, innerResponse) -> {
+                });
+                assertThat(read.getStatus(), equalTo(HttpStatus.OK.value()));
+            }
+            assertThat(concurrencyLimitFilter.limits().get(ConcurrencyLimitFilter.READS).getInFlight(), equalTo(0));
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThat(concurrencyLimitFilter.limits().get(ConcurrencyLimitFilter.READS).getLimit(), greaterThanOrEqualTo(limit));
+    }
+
+    @Test
+    void whenTheActuatorIsAskedThenTheCurrentLimitsAreReturned() throws Exception {
+        mockMvc.perform(get("/actuator/concurrencylimits"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mutations.limit", is(1)))
+                .andExpect(jsonPath("$.reads.limit", is(100)));
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+}
@@ -0,0 +1,134 @@
+package com.beerstock.controllers;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.builders.QuantityDTOBuilder;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.services.BeerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+
+import static com.beerstock.utils.JsonConverter.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyFilterTest {
+    private static final String BEER_API_URL = "/api/v1/beers";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    private BeerDTO beerDTO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        beerDTO = beerService.create(BeerDTOBuilder.builder().id(null).quantity(10).max(50).build().toBeerDTO());
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenADecrementIsRetriedWithTheSameKeyThenItIsAppliedOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        String first = decrement(key, 3)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity", is(7)))
+                .andReturn().getResponse().getContentAsString();
+        decrement(key, 3)
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"))
+                .andExpect(content().json(first));
+
+        assertThat(beerService.findByName(beerDTO.getName()).getQuantity(), equalTo(7));
+    }
+
+    @Test
+    void whenDecrementsUseDifferentKeysThenBothAreApplied() throws Exception {
+        decrement(UUID.randomUUID().toString(), 3).andExpect(status().isOk());
+        decrement(UUID.randomUUID().toString(), 3).andExpect(status().isOk());
+
+        assertThat(beerService.findByName(beerDTO.getName()).getQuantity(), equalTo(4));
+    }
+
+    @Test
+    void whenAKeyIsReusedForAnotherRequestThenItIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        decrement(key, 3).andExpect(status().isOk());
+        decrement(key, 4).andExpect(status().isUnprocessableEntity());
+
+        assertThat(beerService.findByName(beerDTO.getName()).getQuantity(), equalTo(7));
+    }
+
+    @Test
+    void whenAFailedDecrementIsRetriedThenTheErrorIsReplayed() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        MockHttpServletResponse first = decrement(key, 11)
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse();
+        beerService.increment(beerDTO.getId(), 5);
+        decrement(key, 11)
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"))
+                .andExpect(content().contentType(first.getContentType()))
+                .andExpect(content().bytes(first.getContentAsByteArray()));
+
+        assertThat(beerService.findByName(beerDTO.getName()).getQuantity(), equalTo(15));
+    }
+
+    @Test
+    void whenACreateAndADeleteAreRetriedThenTheyAreReplayed() throws Exception {
+        String createKey = UUID.randomUUID().toString();
+        String newBeer = asJsonString(BeerDTOBuilder.builder().id(null).name("Skol").build().toBeerDTO());
+
+        mockMvc.perform(post(BEER_API_URL).header(IdempotencyFilter.IDEMPOTENCY_KEY, createKey).contentType(MediaType.APPLICATION_JSON).content(newBeer))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post(BEER_API_URL).header(IdempotencyFilter.IDEMPOTENCY_KEY, createKey).contentType(MediaType.APPLICATION_JSON).content(newBeer))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name", is("Skol")));
+
+        String deleteKey = UUID.randomUUID().toString();
+        mockMvc.perform(delete(BEER_API_URL + "/" + beerDTO.getId()).header(IdempotencyFilter.IDEMPOTENCY_KEY, deleteKey))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete(BEER_API_URL + "/" + beerDTO.getId()).header(IdempotencyFilter.IDEMPOTENCY_KEY, deleteKey))
+                .andExpect(status().isNoContent());
+    }
+
+    private ResultActions decrement(String key, int quantity) throws Exception {
+        return mockMvc.perform(patch(BEER_API_URL + "/" + beerDTO.getId() + "/decrement")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(QuantityDTOBuilder.builder().quantity(quantity).build().toQuantityDTO())));
+    }
+}
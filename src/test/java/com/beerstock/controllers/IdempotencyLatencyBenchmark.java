@@ -0,0 +1,91 @@
+package com.beerstock.controllers;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.builders.QuantityDTOBuilder;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.services.BeerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static com.beerstock.utils.JsonConverter.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Prints the latency percentiles of increments sent without an {@code Idempotency-Key}, with a
+ * new key each time and with a key already answered, so the cost the idempotency store adds to
+ * the write path shows. Run with {@code gradle benchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+abstract class IdempotencyLatencyBenchmark {
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int REQUESTS = 10_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String quantity = asJsonString(QuantityDTOBuilder.builder().quantity(1).build().toQuantityDTO());
+    private BeerDTO beerDTO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        beerDTO = beerService.create(BeerDTOBuilder.builder().id(null).quantity(0).max(Integer.MAX_VALUE).build().toBeerDTO());
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    void run(String store) throws Exception {
+        measure(WARMUP_REQUESTS, null);
+        System.out.printf("%-10s without key:  %s%n", store, measure(REQUESTS, null));
+        System.out.printf("%-10s new key:      %s%n", store, measure(REQUESTS, i -> UUID.randomUUID().toString()));
+        String replayedKey = UUID.randomUUID().toString();
+        System.out.printf("%-10s replayed key: %s%n", store, measure(REQUESTS, i -> replayedKey));
+    }
+
+    private String measure(int requests, IntFunction<String> keys) throws Exception {
+        List<Long> latencies = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/beers/" + beerDTO.getId() + "/increment"))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(quantity));
+            if (keys != null) request.header(IdempotencyFilter.IDEMPOTENCY_KEY, keys.apply(i));
+
+            long start = System.nanoTime();
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            latencies.add(System.nanoTime() - start);
+            assertThat(response.statusCode(), equalTo(200));
+        }
+        Collections.sort(latencies);
+        return String.format("p50 %.3f ms, p99 %.3f ms", percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        return sorted.get((int) Math.ceil(percentile * sorted.size()) - 1) / 1e6;
+    }
+}
@@ -0,0 +1,10 @@
+package com.beerstock.controllers;
+
+import org.junit.jupiter.api.Test;
+
+class MemoryIdempotencyBenchmarkTest extends IdempotencyLatencyBenchmark {
+    @Test
+    void measureLatency() throws Exception {
+        run("memory");
+    }
+}
@@ -0,0 +1,123 @@
+package com.beerstock.controllers;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.builders.QuantityDTOBuilder;
+import com.beerstock.config.RequestExecutionConfig;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.QuantityDTO;
+import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.exceptions.BeerStockExceededException;
+import com.beerstock.services.BeerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static com.beerstock.utils.JsonConverter.asJsonString;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "beerstock.async.enabled=true")
+class OffloadingHandlerAdapterTest {
+    private static final String BEER_API_URL = "/api/v1/beers";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BeerService beerService;
+
+    @MockBean(name = RequestExecutionConfig.BEER_REQUEST_EXECUTOR)
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+    }
+
+    @Test
+    void whenGetIsCalledWithBeerNameThenABeerIsReturnedAsynchronously() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+        MvcResult result = mockMvc.perform(get(BEER_API_URL + "/" + beerDTO.getName()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.name", is(beerDTO.getName())));
+    }
+
+    @Test
+    void whenGetIsCalledWithInvalidBeerNameThenAErrorIsReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerService.findByName(beerDTO.getName())).thenThrow(BeerNotFoundException.class);
+        MvcResult result = mockMvc.perform(get(BEER_API_URL + "/" + beerDTO.getName()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void whenPatchIsCalledToIncrementWithAQuantityThatWouldExceedMaxThenAErrorIsReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        QuantityDTO quantityDTO = QuantityDTOBuilder.builder().quantity(beerDTO.getMax()).build().toQuantityDTO();
+
+        when(beerService.increment(beerDTO.getId(), quantityDTO.getQuantity())).thenThrow(BeerStockExceededException.class);
+        MvcResult result = mockMvc.perform(patch(BEER_API_URL + "/" + beerDTO.getId() + "/increment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(quantityDTO)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenDeleteIsCalledThenNoContentIsReturnedAsynchronously() throws Exception {
+        MvcResult result = mockMvc.perform(delete(BEER_API_URL + "/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNoContent());
+        verify(beerService).deleteById(1L);
+    }
+
+    @Test
+    void whenANonBlockingEndpointIsCalledThenItStaysOnTheRequestThread() throws Exception {
+        mockMvc.perform(get(BEER_API_URL + "/autocomplete").param("q", "bra"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenTheExecutorIsSaturatedThenServiceUnavailableIsReturned() throws Exception {
+        doThrow(new TaskRejectedException("Executor saturated")).when(executor).execute(any(Runnable.class));
+
+        mockMvc.perform(get(BEER_API_URL + "/Brahma"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
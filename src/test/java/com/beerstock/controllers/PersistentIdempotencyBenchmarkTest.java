@@ -0,0 +1,12 @@
+package com.beerstock.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "beerstock.idempotency.persistent=true")
+class PersistentIdempotencyBenchmarkTest extends IdempotencyLatencyBenchmark {
+    @Test
+    void measureLatency() throws Exception {
+        run("persistent");
+    }
+}
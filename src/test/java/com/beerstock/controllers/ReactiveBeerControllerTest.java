@@ -0,0 +1,166 @@
+package com.beerstock.controllers;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.builders.QuantityDTOBuilder;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.QuantityDTO;
+import com.beerstock.dtos.StockAdjustmentDTO;
+import com.beerstock.dtos.StockOperationDTO;
+import com.beerstock.enums.StockOperationStatus;
+import com.beerstock.repositories.ReactiveBeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+class ReactiveBeerControllerTest {
+    private static final String BEER_API_URL = "/api/v1/beers";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveBeerRepository beerRepository;
+
+    private BeerDTO beerDTO;
+
+    @BeforeEach
+    void setUp() {
+        beerDTO = webTestClient.post().uri(BEER_API_URL)
+                .bodyValue(BeerDTOBuilder.builder().id(null).quantity(10).max(50).build().toBeerDTO())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BeerDTO.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll().block();
+    }
+
+    @Test
+    void whenGetIsCalledWithBeerNameThenABeerIsReturned() {
+        webTestClient.get().uri(BEER_API_URL + "/" + beerDTO.getName())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo(beerDTO.getName())
+                .jsonPath("$.quantity").isEqualTo(10);
+    }
+
+    @Test
+    void whenGetIsCalledWithInvalidBeerNameThenAErrorIsReturned() {
+        webTestClient.get().uri(BEER_API_URL + "/Unknown")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenPostIsCalledWithAlreadyRegisteredBeerThenAErrorIsReturned() {
+        webTestClient.post().uri(BEER_API_URL)
+                .bodyValue(beerDTO)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenPatchIsCalledToIncrementThenABeerQuantityIsIncremented() {
+        QuantityDTO quantityDTO = QuantityDTOBuilder.builder().quantity(5).build().toQuantityDTO();
+
+        webTestClient.patch().uri(BEER_API_URL + "/" + beerDTO.getId() + "/increment")
+                .bodyValue(quantityDTO)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.quantity").isEqualTo(15);
+    }
+
+    @Test
+    void whenPatchIsCalledToDecrementBelowZeroThenAErrorIsReturned() {
+        QuantityDTO quantityDTO = QuantityDTOBuilder.builder().quantity(11).build().toQuantityDTO();
+
+        webTestClient.patch().uri(BEER_API_URL + "/" + beerDTO.getId() + "/decrement")
+                .bodyValue(quantityDTO)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenDeleteIsCalledAfterAnAdjustmentThenTheBeerIsDeleted() {
+        webTestClient.patch().uri(BEER_API_URL + "/" + beerDTO.getId() + "/increment")
+                .bodyValue(QuantityDTOBuilder.builder().quantity(5).build().toQuantityDTO())
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.delete().uri(BEER_API_URL + "/" + beerDTO.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri(BEER_API_URL + "/" + beerDTO.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenABeerIsCreatedWithAReorderPointThenItIsReturned() {
+        BeerDTO stout = BeerDTOBuilder.builder().id(null).name("Stout").build().toBeerDTO();
+        stout.setReorderPoint(5);
+
+        webTestClient.post().uri(BEER_API_URL)
+                .bodyValue(stout)
+                .exchange()
+                .expectStatus().isCreated();
+        webTestClient.get().uri(BEER_API_URL + "/Stout")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.reorderPoint").isEqualTo(5)
+                .jsonPath("$.reserved").isEqualTo(0);
+    }
+
+    @Test
+    void whenAnOperationFailsInAllOrNothingModeThenNoneShouldBeApplied() {
+        StockAdjustmentDTO stockAdjustmentDTO = StockAdjustmentDTO.builder()
+                .operations(List.of(
+                        StockOperationDTO.builder().id(beerDTO.getId()).delta(5).build(),
+                        StockOperationDTO.builder().id(0L).delta(1).build()))
+                .build();
+
+        webTestClient.patch().uri(BEER_API_URL + "/stock")
+                .bodyValue(stockAdjustmentDTO)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo(StockOperationStatus.ROLLED_BACK.toString())
+                .jsonPath("$[1].status").isEqualTo(StockOperationStatus.NOT_FOUND.toString());
+
+        StepVerifier.create(beerRepository.findById(beerDTO.getId()))
+                .expectNextMatches(beerRow -> beerRow.getQuantity() == 10)
+                .verifyComplete();
+    }
+
+    @Test
+    void whenGetIsCalledAcceptingNdjsonThenBeersAreStreamed() {
+        webTestClient.get().uri(BEER_API_URL)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BeerDTO.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNextMatches(streamedBeerDTO -> streamedBeerDTO.getName().equals(beerDTO.getName()))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,12 @@
+package com.beerstock.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles("reactive")
+class ReactiveRequestLoadBenchmarkTest extends RequestExecutionLoadBenchmark {
+    @Test
+    void measureThroughput() {
+        run("reactive");
+    }
+}
@@ -0,0 +1,108 @@
+package com.beerstock.controllers;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.builders.QuantityDTOBuilder;
+import com.beerstock.dtos.BeerDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.beerstock.utils.JsonConverter.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Drives the increment endpoint from 1000 concurrent connections and prints the throughput and
+ * latency percentiles, so the request execution modes and the reactive profile can be compared.
+ * Beers are set up over HTTP, as the reactive profile has no JPA repository. Run with
+ * {@code gradle benchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+abstract class RequestExecutionLoadBenchmark {
+    private static final int BEERS = 100;
+    private static final int CONNECTIONS = 1000;
+    private static final int REQUESTS_PER_CONNECTION = 10;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 0; i < BEERS; i++) {
+            BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name("Beer " + i).quantity(0).max(500).build().toBeerDTO();
+            HttpResponse<String> response = httpClient.send(request("", "POST", asJsonString(beerDTO)), HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode(), equalTo(201));
+            ids.add(objectMapper.readValue(response.body(), BeerDTO.class).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (Long id : ids) {
+            httpClient.send(request("/" + id, "DELETE", ""), HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    void run(String mode) {
+        String quantity = asJsonString(QuantityDTOBuilder.builder().quantity(1).build().toQuantityDTO());
+        AtomicInteger succeeded = new AtomicInteger();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> connections = new ArrayList<>(CONNECTIONS);
+        for (int connection = 0; connection < CONNECTIONS; connection++) {
+            CompletableFuture<Void> requests = CompletableFuture.completedFuture(null);
+            for (int i = 0; i < REQUESTS_PER_CONNECTION; i++) {
+                Long id = ids.get((connection * REQUESTS_PER_CONNECTION + i) % BEERS);
+                requests = requests.thenCompose(ignored -> {
+                    long requestStart = System.nanoTime();
+                    return httpClient.sendAsync(request("/" + id + "/increment", "PATCH", quantity), HttpResponse.BodyHandlers.ofString())
+                            .thenAccept(response -> {
+                                latencies.add(System.nanoTime() - requestStart);
+                                if (response.statusCode() == 200) succeeded.incrementAndGet();
+                            });
+                });
+            }
+            connections.add(requests);
+        }
+        CompletableFuture.allOf(connections.toArray(new CompletableFuture[0])).join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        int requests = CONNECTIONS * REQUESTS_PER_CONNECTION;
+        System.out.printf("%-8s: %d requests from %d connections in %.3f s (%.0f req/s), p50 %.1f ms, p99 %.1f ms%n",
+                mode, requests, CONNECTIONS, seconds, requests / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99));
+        assertThat(succeeded.get(), equalTo(requests));
+    }
+
+    private double percentile(List<Long> sorted, double percentile) {
+        return sorted.get((int) Math.ceil(percentile * sorted.size()) - 1) / 1e6;
+    }
+
+    private HttpRequest request(String path, String method, String body) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/beers" + path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.beerstock.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Prints bytes on the wire and latency percentiles of the catalog endpoints under the {@code prod}
+ * profile, before (HTTP/1.1 without {@code Accept-Encoding}) and after (h2c with gzip). Run with
+ * {@code gradle benchmarkTest}.
+ */
+@Tag("benchmark")
+@ActiveProfiles("prod")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ServingProfileBenchmarkTest {
+    private static final String INSERT_SQL = "insert into beer (name, brand, quantity, max, type, version, shards, reserved, located, allotted) values (?, ?, 10, 100, 'LAGER', 0, 1, 0, 0, 0)";
+    private static final int BEERS = 10_000;
+    private static final int REQUESTS = 200;
+    private static final List<String> PATHS = Arrays.asList("", "?size=1000", "/search?type=LAGER&size=1000");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient http11Client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final HttpClient http2Client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from beer");
+        List<Object[]> rows = new ArrayList<>(BEERS);
+        for (int i = 0; i < BEERS; i++) rows.add(new Object[]{"Beer " + i, "Brand " + i % 50});
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    @Test
+    void measureBytesOnWireAndLatency() throws Exception {
+        for (String path : PATHS) {
+            Measurement before = measure(http11Client, path, false);
+            Measurement after = measure(http2Client, path, true);
+            System.out.printf("GET api/v1/beers%-30s before: %s%n", path, before);
+            System.out.printf("GET api/v1/beers%-30s after:  %s%n", path, after);
+            assertThat(after.version, equalTo(HttpClient.Version.HTTP_2));
+            assertThat(after.bytes, lessThan(before.bytes));
+        }
+    }
+
+    private Measurement measure(HttpClient httpClient, String path, boolean gzip) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/beers" + path));
+        if (gzip) request.header("Accept-Encoding", "gzip");
+
+        List<Long> latencies = new ArrayList<>(REQUESTS);
+        HttpResponse<byte[]> response = null;
+        for (int i = 0; i < REQUESTS; i++) {
+            long start = System.nanoTime();
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            latencies.add(System.nanoTime() - start);
+            assertThat(response.statusCode(), equalTo(200));
+        }
+        Collections.sort(latencies);
+        return new Measurement(response.version(), response.body().length, percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        return sorted.get((int) Math.ceil(percentile * sorted.size()) - 1) / 1e6;
+    }
+
+    private static final class Measurement {
+        private final HttpClient.Version version;
+        private final int bytes;
+        private final double p50;
+        private final double p99;
+
+        private Measurement(HttpClient.Version version, int bytes, double p50, double p99) {
+            this.version = version;
+            this.bytes = bytes;
+            this.p50 = p50;
+            this.p99 = p99;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s, %d bytes, p50 %.1f ms, p99 %.1f ms", version, bytes, p50, p99);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.beerstock.controllers;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.builders.QuantityDTOBuilder;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.StockAdjustmentDTO;
+import com.beerstock.dtos.StockOperationDTO;
+import com.beerstock.enums.StockAdjustmentMode;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.services.BeerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.beerstock.utils.JsonConverter.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Compares the throughput of the single-item increment endpoint with the bulk stock endpoint.
+ * Run with {@code gradle benchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StockAdjustmentThroughputBenchmarkTest {
+    private static final int BEERS = 100;
+    private static final int OPERATIONS = 2000;
+    private static final int BULK_SIZE = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 0; i < BEERS; i++) {
+            BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name("Beer " + i).quantity(0).max(500).build().toBeerDTO();
+            ids.add(beerService.create(beerDTO).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void compareSingleItemAndBulkThroughput() throws Exception {
+        String quantity = asJsonString(QuantityDTOBuilder.builder().quantity(1).build().toQuantityDTO());
+        long singleItemStart = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            patch("/api/v1/beers/" + ids.get(i % BEERS) + "/increment", quantity);
+        }
+        double singleItemSeconds = (System.nanoTime() - singleItemStart) / 1e9;
+
+        long bulkStart = System.nanoTime();
+        for (int offset = 0; offset < OPERATIONS; offset += BULK_SIZE) {
+            List<StockOperationDTO> operations = new ArrayList<>(BULK_SIZE);
+            for (int i = offset; i < offset + BULK_SIZE; i++) {
+                operations.add(StockOperationDTO.builder().id(ids.get(i % BEERS)).delta(1).build());
+            }
+            patch("/api/v1/beers/stock", asJsonString(StockAdjustmentDTO.builder()
+                    .mode(StockAdjustmentMode.ALL_OR_NOTHING)
+                    .operations(operations)
+                    .build()));
+        }
+        double bulkSeconds = (System.nanoTime() - bulkStart) / 1e9;
+
+        System.out.printf("single-item: %d operations in %.3f s (%.0f ops/s)%n", OPERATIONS, singleItemSeconds, OPERATIONS / singleItemSeconds);
+        System.out.printf("bulk:        %d operations in %.3f s (%.0f ops/s)%n", OPERATIONS, bulkSeconds, OPERATIONS / bulkSeconds);
+        assertThat(beerService.listAll().stream().mapToInt(BeerDTO::getQuantity).sum(), equalTo(2 * OPERATIONS));
+    }
+
+    private void patch(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode(), equalTo(200));
+    }
+}
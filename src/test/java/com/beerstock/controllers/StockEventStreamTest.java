@@ -0,0 +1,121 @@
+package com.beerstock.controllers;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.services.BeerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "beerstock.events.history-size=2")
+class StockEventStreamTest {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenStockChangesThenSubscribersReceiveEventsAndResumeFromLastEventId() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            List<String> received;
+            BeerDTO beerDTO;
+            try (Stream<String> stream = subscribe(null)) {
+                beerDTO = beerService.create(BeerDTOBuilder.builder().id(null).quantity(10).max(50).build().toBeerDTO());
+                beerService.increment(beerDTO.getId(), 5);
+                received = readEvents(stream.iterator(), 2);
+            }
+            assertThat(received.get(0), containsString("\"type\":\"CREATED\""));
+            assertThat(received.get(1), containsString("\"delta\":5"));
+            assertThat(received.get(1), containsString("\"quantity\":15"));
+
+            beerService.decrement(beerDTO.getId(), 2);
+            String createdEventId = received.get(0).substring("id:".length(), received.get(0).indexOf('\n'));
+
+            try (Stream<String> stream = subscribe(createdEventId)) {
+                List<String> replayed = readEvents(stream.iterator(), 2);
+                assertThat(replayed, hasSize(2));
+                assertThat(replayed.get(0), containsString("\"type\":\"INCREMENTED\""));
+                assertThat(replayed.get(1), containsString("\"quantity\":13"));
+            }
+        });
+    }
+
+    @Test
+    void whenTheLastEventIdIsNoLongerInTheHistoryThenAResetIsSentBeforeTheRetainedEvents() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            List<String> received;
+            BeerDTO beerDTO;
+            try (Stream<String> stream = subscribe(null)) {
+                beerDTO = beerService.create(BeerDTOBuilder.builder().id(null).quantity(10).max(50).build().toBeerDTO());
+                received = readEvents(stream.iterator(), 1);
+            }
+            String createdEventId = received.get(0).substring("id:".length(), received.get(0).indexOf('\n'));
+            for (int i = 0; i < 3; i++) beerService.increment(beerDTO.getId(), 1);
+
+            try (Stream<String> stream = subscribe(createdEventId)) {
+                List<String> replayed = readEvents(stream.iterator(), 3);
+                assertThat(replayed.get(0), containsString("event:reset"));
+                assertThat(replayed.get(0), containsString("\"lastEventId\":" + createdEventId));
+                assertThat(replayed.get(1), containsString("\"quantity\":12"));
+                assertThat(replayed.get(2), containsString("\"quantity\":13"));
+            }
+        });
+    }
+
+    private Stream<String> subscribe(String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/beers/stock/events"))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) request.header("Last-Event-ID", lastEventId);
+        HttpResponse<Stream<String>> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode(), equalTo(200));
+        return response.body();
+    }
+
+    /**
+     * Reads events as their {@code id:}, {@code event:} and {@code data:} lines joined by new lines.
+     */
+    private List<String> readEvents(Iterator<String> lines, int count) {
+        List<String> events = new ArrayList<>();
+        StringBuilder event = new StringBuilder();
+        while (events.size() < count && lines.hasNext()) {
+            String line = lines.next();
+            if (!line.isEmpty()) {
+                event.append(line).append('\n');
+            } else if (event.length() > 0) {
+                events.add(event.toString());
+                event.setLength(0);
+            }
+        }
+        return events;
+    }
+}
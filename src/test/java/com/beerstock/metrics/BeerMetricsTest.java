@@ -0,0 +1,61 @@
+package com.beerstock.metrics;
+
+import com.beerstock.enums.BeerType;
+import com.beerstock.repositories.BeerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BeerMetricsTest {
+    @Mock
+    private BeerRepository beerRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BeerMetrics beerMetrics;
+
+    @BeforeEach
+    void setUp() {
+        beerMetrics = new BeerMetrics(meterRegistry, beerRepository);
+    }
+
+    @Test
+    void whenStockIsAdjustedThenUnitsAreCountedPerTypeAndDirection() {
+        beerMetrics.stockAdjusted(BeerType.LAGER, 5);
+        beerMetrics.stockAdjusted(BeerType.LAGER, -2);
+        beerMetrics.stockAdjusted(BeerType.IPA, 3);
+
+        assertThat(units(BeerType.LAGER, "incremented"), equalTo(5.0));
+        assertThat(units(BeerType.LAGER, "decremented"), equalTo(2.0));
+        assertThat(units(BeerType.IPA, "incremented"), equalTo(3.0));
+    }
+
+    @Test
+    void whenStockChangesThenTheOnHandGaugeFollowsWithoutQueryingAgain() {
+        when(beerRepository.sumQuantity()).thenReturn(100L);
+
+        beerMetrics.initialize();
+        beerMetrics.onHandChanged(20);
+        beerMetrics.stockAdjusted(BeerType.LAGER, -5);
+        beerMetrics.onHandChanged(-10);
+
+        assertThat(meterRegistry.get("beerstock.stock.on.hand").gauge().value(), equalTo(105.0));
+    }
+
+    private double units(BeerType type, String direction) {
+        return meterRegistry.get("beerstock.stock.units")
+                .tag("type", type.name())
+                .tag("direction", direction)
+                .counter()
+                .count();
+    }
+}
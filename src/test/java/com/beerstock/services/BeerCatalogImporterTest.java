@@ -0,0 +1,154 @@
+package com.beerstock.services;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.ImportErrorDTO;
+import com.beerstock.dtos.ImportReportDTO;
+import com.beerstock.enums.BeerType;
+import com.beerstock.repositories.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.beerstock.utils.JsonConverter.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest
+class BeerCatalogImporterTest {
+    @Autowired
+    private BeerCatalogImporter catalogImporter;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private InventoryStatistics inventoryStatistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        beerRepository.deleteAll();
+        inventoryStatistics.reload();
+        beerService.create(BeerDTOBuilder.builder().id(null).name("Brahma").build().toBeerDTO());
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+        inventoryStatistics.reload();
+    }
+
+    @Test
+    void whenCsvIsImportedThenNewBeersAreCreatedAndRegisteredNamesSkipped() throws Exception {
+        ImportReportDTO report = catalogImporter.importCsv(stream(
+                "\uFEFFtype,name,brand,quantity,max\n" +
+                "PILSEN,Skol,Ambev,5,50\n" +
+                "LAGER,Brahma,Ambev,10,50\n" +
+                "IPA,\"Colorado, Indica\",Colorado,30,100\n" +
+                "\n" +
+                "PILSEN,Skol,Ambev,1,50\n"));
+
+        assertThat(report.getImported(), equalTo(2L));
+        assertThat(report.getDuplicates(), equalTo(2L));
+        assertThat(report.getFailed(), equalTo(0L));
+        assertThat(lines(report.getErrors()), contains(6L, 3L));
+        assertThat(beerService.findByName("Colorado, Indica").getType(), equalTo(BeerType.IPA));
+        assertThat(beerService.findByName("Skol").getQuantity(), equalTo(5));
+        assertThat(beerService.suggest("colo", 1).get(0).getName(), equalTo("Colorado, Indica"));
+        assertThat(inventoryStatistics.statistics().getTotal().getSkus(), equalTo(3L));
+    }
+
+    @Test
+    void whenCsvLinesAreInvalidThenEachIsReportedWithItsLineNumber() throws Exception {
+        ImportReportDTO report = catalogImporter.importCsv(stream(
+                "name,brand,quantity,max,type,reorderPoint\n" +
+                "Skol,Ambev,five,50,PILSEN,\n" +
+                "Bohemia,Ambev,10,50,PORTER,\n" +
+                "Antarctica,Ambev,60,50,LAGER,\n" +
+                "Original,Ambev,10,,LAGER,\n" +
+                "\"Serramalte,Ambev,10,50,LAGER,\n" +
+                "Budweiser,Ambev,10,50,LAGER,5\n"));
+
+        assertThat(report.getImported(), equalTo(1L));
+        assertThat(report.getFailed(), equalTo(5L));
+        assertThat(lines(report.getErrors()), contains(2L, 3L, 4L, 5L, 6L));
+        assertThat(report.getErrors().get(0).getMessage(), equalTo("quantity must be a number"));
+        assertThat(beerService.findByName("Budweiser").getReorderPoint(), equalTo(5));
+    }
+
+    @Test
+    void whenCsvHeaderLacksARequiredColumnThenNothingIsImported() throws Exception {
+        ImportReportDTO report = catalogImporter.importCsv(stream("name,brand,quantity,type\nSkol,Ambev,5,PILSEN\n"));
+
+        assertThat(report.getImported(), equalTo(0L));
+        assertThat(report.getErrors(), hasSize(1));
+        assertThat(report.getErrors().get(0).getMessage(), equalTo("Missing column max."));
+    }
+
+    @Test
+    void whenMoreLinesThanAChunkAreImportedThenAllAreInserted() throws Exception {
+        StringBuilder csv = new StringBuilder("name,brand,quantity,max,type\n");
+        int beers = BeerCatalogImporter.CHUNK_SIZE * 2 + 7;
+        for (int i = 0; i < beers; i++) csv.append("Beer ").append(i).append(",Brand,").append(i % 50).append(",50,LAGER\n");
+
+        ImportReportDTO report = catalogImporter.importCsv(stream(csv.toString()));
+
+        assertThat(report.getImported(), equalTo((long) beers));
+        assertThat(report.getErrors(), empty());
+        assertThat(beerRepository.count(), equalTo(beers + 1L));
+    }
+
+    @Test
+    void whenNdjsonIsImportedThenMalformedLinesAreReported() throws Exception {
+        BeerDTO skol = BeerDTOBuilder.builder().id(null).name("Skol").type(BeerType.PILSEN).build().toBeerDTO();
+        BeerDTO brahma = BeerDTOBuilder.builder().id(null).build().toBeerDTO();
+
+        ImportReportDTO report = catalogImporter.importNdjson(stream(
+                asJsonString(skol) + "\n" +
+                "{\"name\": \"Bohemia\"\n" +
+                asJsonString(brahma) + "\n"));
+
+        assertThat(report.getImported(), equalTo(1L));
+        assertThat(report.getFailed(), equalTo(1L));
+        assertThat(report.getDuplicates(), equalTo(1L));
+        assertThat(lines(report.getErrors()), contains(2L, 3L));
+        assertThat(beerService.findByName("Skol").getReorderPoint(), nullValue());
+    }
+
+    @Test
+    void whenTheExportIsImportedAgainThenEveryLineIsADuplicate() throws Exception {
+        beerService.create(BeerDTOBuilder.builder().id(null).name("Colorado \"Indica\"").build().toBeerDTO());
+        List<String> lines = new ArrayList<>(List.of(BeerCsv.HEADER));
+        beerService.streamAll(beerDTO -> lines.add(BeerCsv.toLine(beerDTO)));
+
+        ImportReportDTO report = catalogImporter.importCsv(stream(String.join("\n", lines)));
+
+        assertThat(report.getImported(), equalTo(0L));
+        assertThat(report.getDuplicates(), equalTo(2L));
+        assertThat(report.getFailed(), equalTo(0L));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Long> lines(List<ImportErrorDTO> errors) {
+        return errors.stream().map(ImportErrorDTO::getLine).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,120 @@
+package com.beerstock.services;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.dtos.BeerSuggestionDTO;
+import com.beerstock.entities.Beer;
+import com.beerstock.enums.BeerType;
+import com.beerstock.repositories.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BeerNameIndexTest {
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private BeerNameIndex nameIndex;
+
+    @BeforeEach
+    void setUp() {
+        nameIndex = new BeerNameIndex(beerRepository, transactionTemplate, entityManager);
+        add(1L, "Brahma", "Ambev");
+        add(2L, "Brahma Duplo Malte", "Ambev");
+        add(3L, "Colorado Indica", "Colorado");
+        add(4L, "Heineken", "Heineken");
+    }
+
+    @Test
+    void whenQueryIsAPrefixThenShorterNamesComeFirst() {
+        assertThat(ids(nameIndex.suggest("brah", 10)), contains(1L, 2L));
+    }
+
+    @Test
+    void whenQueryStartsALaterWordOrTheBrandThenTheBeerIsSuggested() {
+        assertThat(ids(nameIndex.suggest("malte", 10)), contains(2L));
+        assertThat(ids(nameIndex.suggest("ambev", 10)), containsInAnyOrder(1L, 2L));
+    }
+
+    @Test
+    void whenQueryHasATypoThenTheBeerIsSuggestedWithItsDistance() {
+        List<BeerSuggestionDTO> suggestions = nameIndex.suggest("Heiniken", 10);
+
+        assertThat(ids(suggestions), contains(4L));
+        assertThat(suggestions.get(0).getDistance(), equalTo(1));
+        assertThat(suggestions.get(0).getName(), equalTo("Heineken"));
+    }
+
+    @Test
+    void whenQueryDiffersInCaseAndAccentsThenItStillMatches() {
+        assertThat(ids(nameIndex.suggest("CÓLORADO", 10)), contains(3L));
+    }
+
+    @Test
+    void whenShortQueryHasATypoThenNothingIsSuggested() {
+        assertThat(nameIndex.suggest("bra", 10), hasSize(2));
+        assertThat(nameIndex.suggest("bri", 10), empty());
+    }
+
+    @Test
+    void whenLimitIsReachedThenSuggestionsAreCut() {
+        assertThat(ids(nameIndex.suggest("brahma", 1)), contains(1L));
+    }
+
+    @Test
+    void whenBeerIsRemovedThenItIsNoLongerSuggested() {
+        nameIndex.remove(1L);
+
+        assertThat(ids(nameIndex.suggest("brahma", 10)), contains(2L));
+        add(5L, "Brahma Chopp", "Ambev");
+        assertThat(ids(nameIndex.suggest("brahma", 10)), contains(5L, 2L));
+    }
+
+    @Test
+    void whenRebuiltThenOnlyBeersFromTheDatabaseAreSuggested() {
+        Beer beer = new Beer(7L, "Bohemia", "Ambev", 10, 50, BeerType.LAGER, 0L, 1, null, 0);
+        when(beerRepository.streamAll()).thenReturn(Stream.of(beer));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        nameIndex.rebuild();
+
+        assertThat(ids(nameIndex.suggest("ambev", 10)), contains(7L));
+    }
+
+    private void add(Long id, String name, String brand) {
+        nameIndex.add(BeerDTOBuilder.builder().id(id).name(name).brand(brand).build().toBeerDTO());
+    }
+
+    private static List<Long> ids(List<BeerSuggestionDTO> suggestions) {
+        return suggestions.stream().map(BeerSuggestionDTO::getId).collect(Collectors.toList());
+    }
+}
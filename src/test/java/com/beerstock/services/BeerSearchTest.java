@@ -0,0 +1,94 @@
+package com.beerstock.services;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.BeerPageDTO;
+import com.beerstock.dtos.BeerSearchDTO;
+import com.beerstock.enums.BeerType;
+import com.beerstock.exceptions.BeerAlreadyRegisteredException;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.repositories.BeerStockShardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest
+class BeerSearchTest {
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private BeerStockShardRepository shardRepository;
+
+    @AfterEach
+    void tearDown() {
+        shardRepository.deleteAll();
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenSearchingByBrandTypeAndQuantityThenOnlyMatchingBeersAreReturned() throws Exception {
+        create("Colorado Indica", "Colorado", BeerType.IPA, 5);
+        create("Colorado Appia", "Colorado", BeerType.IPA, 40);
+        create("Colorado Ithaca", "Colorado", BeerType.STOUT, 5);
+        create("Baden IPA", "Baden Baden", BeerType.IPA, 5);
+
+        BeerPageDTO page = beerService.search(BeerSearchDTO.builder().brand("Colorado").type(BeerType.IPA).maxQuantity(10).build());
+
+        assertThat(names(page), contains("Colorado Indica"));
+        assertThat(page.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void whenSearchingByNamePrefixThenLikeWildcardsAreMatchedLiterally() throws Exception {
+        create("Brahma_Extra", "Ambev", BeerType.LAGER, 10);
+        create("BrahmaXExtra", "Ambev", BeerType.LAGER, 10);
+        create("Skol", "Ambev", BeerType.LAGER, 10);
+
+        BeerPageDTO page = beerService.search(BeerSearchDTO.builder().name("Brahma_").build());
+
+        assertThat(names(page), contains("Brahma_Extra"));
+    }
+
+    @Test
+    void whenSearchingByQuantityThenShardedBeersAreFilteredOnTheirSummedQuantity() throws Exception {
+        BeerDTO sharded = create("Hot Lager", "Ambev", BeerType.LAGER, 8);
+        beerService.shard(sharded.getId(), 4);
+        create("Cold Lager", "Ambev", BeerType.LAGER, 30);
+
+        assertThat(names(beerService.search(BeerSearchDTO.builder().maxQuantity(10).build())), contains("Hot Lager"));
+        assertThat(names(beerService.search(BeerSearchDTO.builder().minQuantity(20).build())), contains("Cold Lager"));
+    }
+
+    @Test
+    void whenResultsExceedThePageSizeThenTheCursorReadsTheNextPage() throws Exception {
+        for (int i = 0; i < 5; i++) create("Pilsen " + i, "Ambev", BeerType.PILSEN, i);
+
+        BeerPageDTO firstPage = beerService.search(BeerSearchDTO.builder().type(BeerType.PILSEN).size(3).build());
+        BeerPageDTO secondPage = beerService.search(BeerSearchDTO.builder().type(BeerType.PILSEN).size(3).after(firstPage.getNextCursor()).build());
+
+        assertThat(names(firstPage), contains("Pilsen 0", "Pilsen 1", "Pilsen 2"));
+        assertThat(names(secondPage), contains("Pilsen 3", "Pilsen 4"));
+        assertThat(secondPage.getNextCursor(), equalTo(null));
+    }
+
+    private BeerDTO create(String name, String brand, BeerType type, int quantity) throws BeerAlreadyRegisteredException {
+        return beerService.create(BeerDTOBuilder.builder().id(null).name(name).brand(brand).type(type).quantity(quantity).max(50).build().toBeerDTO());
+    }
+
+    private List<String> names(BeerPageDTO page) {
+        return page.getBeers().stream().map(BeerDTO::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,216 @@
+package com.beerstock.services;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.exceptions.BeerAlreadyRegisteredException;
+import com.beerstock.exceptions.BeerNegativeQuantityException;
+import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.exceptions.BeerStockExceededException;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.repositories.BeerStockShardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class BeerServiceConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 50;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private BeerStockShardRepository shardRepository;
+
+    @Autowired
+    private StockShards stockShards;
+
+    @AfterEach
+    void tearDown() {
+        shardRepository.deleteAll();
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenIncrementIsCalledConcurrentlyThenNoUpdateIsLost() throws Exception {
+        BeerDTO beerDTO = createBeer(0, 500);
+
+        int succeeded = runConcurrently(() -> {
+            beerService.increment(beerDTO.getId(), 1);
+            return true;
+        });
+
+        assertThat(succeeded, equalTo(THREADS * OPERATIONS_PER_THREAD));
+        assertThat(beerService.findByName(beerDTO.getName()).getQuantity(), equalTo(THREADS * OPERATIONS_PER_THREAD));
+    }
+
+    @Test
+    void whenDecrementIsCalledConcurrentlyThenQuantityNeverGoesNegative() throws Exception {
+        int initialQuantity = THREADS * OPERATIONS_PER_THREAD / 2;
+        BeerDTO beerDTO = createBeer(initialQuantity, 500);
+
+        int succeeded = runConcurrently(() -> {
+            try {
+                beerService.decrement(beerDTO.getId(), 1);
+                return true;
+            } catch (BeerNegativeQuantityException e) {
+                return false;
+            }
+        });
+
+        assertThat(succeeded, equalTo(initialQuantity));
+        assertThat(beerService.findByName(beerDTO.getName()).getQuantity(), equalTo(0));
+    }
+
+    @Test
+    void whenIncrementIsCalledConcurrentlyThenQuantityNeverExceedsMax() throws Exception {
+        int max = THREADS * OPERATIONS_PER_THREAD / 2;
+        BeerDTO beerDTO = createBeer(0, max);
+
+        int succeeded = runConcurrently(() -> {
+            try {
+                beerService.increment(beerDTO.getId(), 1);
+                return true;
+            } catch (BeerStockExceededException e) {
+                return false;
+            }
+        });
+
+        assertThat(succeeded, equalTo(max));
+        assertThat(beerService.findByName(beerDTO.getName()).getQuantity(), equalTo(max));
+    }
+
+    @Test
+    void whenShardedBeerIsAdjustedConcurrentlyThenBoundsHoldAcrossShards() throws Exception {
+        int initialQuantity = THREADS * OPERATIONS_PER_THREAD / 4;
+        BeerDTO beerDTO = createBeer(initialQuantity, THREADS * OPERATIONS_PER_THREAD / 2);
+        beerService.shard(beerDTO.getId(), 8);
+
+        int decremented = runConcurrently(() -> {
+            try {
+                beerService.decrement(beerDTO.getId(), 1);
+                return true;
+            } catch (BeerNegativeQuantityException e) {
+                return false;
+            }
+        });
+        int incremented = runConcurrently(() -> {
+            try {
+                beerService.increment(beerDTO.getId(), 1);
+                return true;
+            } catch (BeerStockExceededException e) {
+                return false;
+            }
+        });
+
+        assertThat(decremented, equalTo(initialQuantity));
+        assertThat(incremented, equalTo(beerDTO.getMax()));
+        assertThat(beerService.findByName(beerDTO.getName()).getQuantity(), equalTo(beerDTO.getMax()));
+        assertThat(beerService.shard(beerDTO.getId(), 1).getQuantity(), equalTo(beerDTO.getMax()));
+    }
+
+    @Test
+    void whenABeerIsReshardedWhileIncrementedThenNoIncrementIsRejected() throws Exception {
+        BeerDTO beerDTO = createBeer(0, THREADS * OPERATIONS_PER_THREAD * 2);
+        beerService.shard(beerDTO.getId(), 8);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Void> reshard = executor.submit(() -> {
+                Thread.sleep(10);
+                beerService.shard(beerDTO.getId(), 1);
+                return null;
+            });
+
+            int succeeded = runConcurrently(() -> {
+                try {
+                    beerService.increment(beerDTO.getId(), 1);
+                    return true;
+                } catch (BeerStockExceededException e) {
+                    return false;
+                }
+            });
+            reshard.get();
+
+            assertThat(succeeded, equalTo(THREADS * OPERATIONS_PER_THREAD));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(beerService.findByName(beerDTO.getName()).getQuantity(), equalTo(THREADS * OPERATIONS_PER_THREAD));
+    }
+
+    @Test
+    void whenAnUnknownBeerIsReshardedThenAnExceptionShouldBeThrown() {
+        assertThrows(BeerNotFoundException.class, () -> stockShards.reshard(Long.MAX_VALUE, 4));
+    }
+
+    @Test
+    void whenABeerIsDeletedWhileIncrementedThenTheDeleteSucceeds() throws Exception {
+        BeerDTO beerDTO = createBeer(0, THREADS * OPERATIONS_PER_THREAD);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Void> delete = executor.submit(() -> {
+                Thread.sleep(10);
+                beerService.deleteById(beerDTO.getId());
+                return null;
+            });
+
+            runConcurrently(() -> {
+                try {
+                    beerService.increment(beerDTO.getId(), 1);
+                    return true;
+                } catch (BeerNotFoundException e) {
+                    return false;
+                }
+            });
+            delete.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(beerRepository.findById(beerDTO.getId()).isPresent(), equalTo(false));
+    }
+
+    private BeerDTO createBeer(int quantity, int max) throws BeerAlreadyRegisteredException {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).quantity(quantity).max(max).build().toBeerDTO();
+        return beerService.create(beerDTO);
+    }
+
+    private int runConcurrently(Callable<Boolean> operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                results.add(executor.submit(() -> {
+                    int succeeded = 0;
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        if (operation.call()) succeeded++;
+                    }
+                    return succeeded;
+                }));
+            }
+
+            int succeeded = 0;
+            for (Future<Integer> result : results) succeeded += result.get();
+            return succeeded;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -1,23 +1,45 @@
 package com.beerstock.services;
 
 import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.config.CacheConfig;
 import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.BeerPageDTO;
+import com.beerstock.dtos.ReservationDTO;
 import com.beerstock.entities.Beer;
+import com.beerstock.enums.StockMovementType;
 import com.beerstock.exceptions.BeerAlreadyRegisteredException;
 import com.beerstock.exceptions.BeerNegativeQuantityException;
 import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.exceptions.BeerReservationNotSupportedException;
+import com.beerstock.exceptions.BeerShardingNotSupportedException;
 import com.beerstock.exceptions.BeerStockExceededException;
 import com.beerstock.mappers.BeerMapper;
 import com.beerstock.repositories.BeerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
+import javax.persistence.EntityManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
@@ -29,6 +51,44 @@ class BeerServiceTest {
     @Mock
     private BeerRepository beerRepository;
 
+    @Mock
+    private ObjectProvider<StockLedger> stockLedger;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private BeerCatalogVersion catalogVersion = new BeerCatalogVersion();
+
+    @Mock
+    private StockShards stockShards;
+
+    @Mock
+    private StockJournal stockJournal;
+
+    @Mock
+    private BeerNameIndex nameIndex;
+
+    @Mock
+    private InventoryStatistics inventoryStats;
+
+    @Mock
+    private WarehouseService warehouses;
+
+    @Mock
+    private StockReservations stockReservations;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(meterRegistry);
+
+    @Spy
+    private BeerCache beerCache = new BeerCache(new ConcurrentMapCacheManager(CacheConfig.BEERS_BY_NAME, CacheConfig.BEERS_BY_ID));
+
     private final BeerMapper beerMapper = BeerMapper.INSTANCE;
 
     @InjectMocks
@@ -44,6 +104,7 @@ class BeerServiceTest {
 
         BeerDTO createdBeerDTO = beerService.create(expectedBeerDTO);
         assertThat(createdBeerDTO, equalTo((expectedBeerDTO)));
+        verify(eventPublisher, times(1)).publishEvent(new BeerChangedEvent(createdBeerDTO, StockMovementType.CREATED, createdBeerDTO.getQuantity()));
     }
 
     @Test
@@ -76,6 +137,33 @@ class BeerServiceTest {
         assertThrows(BeerNotFoundException.class, () -> beerService.findByName(beerDTO.getName()));
     }
 
+    @Test
+    @Timeout(10)
+    void whenFindByNameMissesConcurrentlyThenTheCallsShareOneQuery() throws Exception {
+        int callers = 8;
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(beerRepository.findByName(beer.getName())).thenAnswer(invocation -> {
+            release.await();
+            return Optional.of(beer);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<BeerDTO>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) results.add(executor.submit(() -> beerService.findByName(beer.getName())));
+            while (singleFlightCalls("collapsed") < callers - 1) Thread.sleep(5);
+            release.countDown();
+
+            for (Future<BeerDTO> result : results) assertThat(result.get(), equalTo(beerMapper.toDTO(beer)));
+        } finally {
+            executor.shutdown();
+        }
+        verify(beerRepository, times(1)).findByName(beer.getName());
+        assertThat(singleFlightCalls("executed"), equalTo(1.0));
+    }
+
     @Test
     void whenListAllIsCalledThenItShouldReturnAListOfBeers() {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
@@ -95,24 +183,91 @@ class BeerServiceTest {
         assertThat(beers, empty());
     }
 
+    @Test
+    @Timeout(10)
+    void whenListAllIsCalledConcurrentlyThenTheCallsShareOneQuery() throws Exception {
+        int callers = 8;
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(beerRepository.findAll()).thenAnswer(invocation -> {
+            release.await();
+            return List.of(beer);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<List<BeerDTO>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) results.add(executor.submit(beerService::listAll));
+            while (singleFlightCalls("collapsed") < callers - 1) Thread.sleep(5);
+            release.countDown();
+
+            for (Future<List<BeerDTO>> result : results) assertThat(result.get(), contains(beerMapper.toDTO(beer)));
+        } finally {
+            executor.shutdown();
+        }
+        verify(beerRepository, times(1)).findAll();
+        assertThat(singleFlightCalls("executed"), equalTo(1.0));
+    }
+
+    @Test
+    void whenListPageIsCalledAndMoreBeersExistThenItShouldReturnTheNextCursor() {
+        Beer firstBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(1L).build().toBeerDTO());
+        Beer secondBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO());
+
+        when(beerRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2))).thenReturn(List.of(firstBeer, secondBeer));
+
+        BeerPageDTO page = beerService.listPage(null, 1);
+        assertThat(page.getBeers(), contains(beerMapper.toDTO(firstBeer)));
+        assertThat(page.getNextCursor(), equalTo(firstBeer.getId()));
+    }
+
+    @Test
+    void whenListPageIsCalledOnTheLastPageThenItShouldNotReturnACursor() {
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().id(2L).build().toBeerDTO());
+
+        when(beerRepository.findByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, BeerService.MAX_PAGE_SIZE + 1))).thenReturn(List.of(beer));
+
+        BeerPageDTO page = beerService.listPage(1L, Integer.MAX_VALUE);
+        assertThat(page.getBeers(), contains(beerMapper.toDTO(beer)));
+        assertThat(page.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void whenStreamAllIsCalledThenEveryBeerShouldBeConsumedAndDetached() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer beer = beerMapper.toModel(beerDTO);
+
+        when(beerRepository.streamAll()).thenReturn(Stream.of(beer));
+
+        List<BeerDTO> consumedBeers = new ArrayList<>();
+        beerService.streamAll(consumedBeers::add);
+        assertThat(consumedBeers, contains(beerDTO));
+        verify(entityManager, times(1)).detach(beer);
+    }
+
     @Test
     void whenDeleteByIdIsCalledWithBeerIdThenItShouldDeleteTheBeer() throws BeerNotFoundException {
         BeerDTO expectedDeletedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedDeletedBeer = beerMapper.toModel(expectedDeletedBeerDTO);
 
-        when(beerRepository.findById(expectedDeletedBeerDTO.getId())).thenReturn(Optional.of(expectedDeletedBeer));
-        doNothing().when(beerRepository).delete(expectedDeletedBeer);
+        when(beerRepository.findByIdForUpdate(expectedDeletedBeerDTO.getId())).thenReturn(Optional.of(expectedDeletedBeer));
+        when(beerRepository.deleteBeer(expectedDeletedBeerDTO.getId())).thenReturn(1);
 
         beerService.deleteById(expectedDeletedBeerDTO.getId());
-        verify(beerRepository, times(1)).findById(expectedDeletedBeerDTO.getId());
-        verify(beerRepository, times(1)).delete(expectedDeletedBeer);
+        verify(beerRepository, times(1)).findByIdForUpdate(expectedDeletedBeerDTO.getId());
+        verify(beerRepository, times(1)).deleteBeer(expectedDeletedBeerDTO.getId());
+        verify(beerRepository, never()).delete(any());
+        verify(warehouses, times(1)).onBeerDeleted(expectedDeletedBeer.getId());
+        verify(stockReservations, times(1)).onBeerDeleted(expectedDeletedBeer.getId());
+        verify(eventPublisher, times(1)).publishEvent(new BeerChangedEvent(expectedDeletedBeerDTO, StockMovementType.DELETED, -expectedDeletedBeer.getQuantity()));
     }
 
     @Test
     void whenDeleteByIdIsCalledWithNotRegisteredBeerIdThenAnExceptionShouldBeThrown() {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
-        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.empty());
+        when(beerRepository.findByIdForUpdate(beerDTO.getId())).thenReturn(Optional.empty());
 
         assertThrows(BeerNotFoundException.class, () -> beerService.deleteById(beerDTO.getId()));
     }
@@ -122,15 +277,18 @@ class BeerServiceTest {
         BeerDTO beerToIncrementDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer beerToIncrement = beerMapper.toModel(beerToIncrementDTO);
 
-        when(beerRepository.findById(beerToIncrementDTO.getId())).thenReturn(Optional.of(beerToIncrement));
-        when(beerRepository.save(beerToIncrement)).thenReturn(beerToIncrement);
         int quantityToIncrement = 10;
         int expectedQuantityAfterIncrement = beerToIncrementDTO.getQuantity() + quantityToIncrement;
+        beerToIncrement.setQuantity(expectedQuantityAfterIncrement);
+
+        when(beerRepository.adjustQuantity(beerToIncrementDTO.getId(), quantityToIncrement)).thenReturn(1);
+        when(beerRepository.findById(beerToIncrementDTO.getId())).thenReturn(Optional.of(beerToIncrement));
 
         BeerDTO incrementedBeerDTO = beerService.increment(beerToIncrementDTO.getId(), quantityToIncrement);
 
         assertThat(expectedQuantityAfterIncrement, equalTo(incrementedBeerDTO.getQuantity()));
         assertThat(incrementedBeerDTO.getQuantity(), lessThan(beerToIncrement.getMax()));
+        verify(eventPublisher, times(1)).publishEvent(new BeerChangedEvent(incrementedBeerDTO, StockMovementType.INCREMENTED, quantityToIncrement));
     }
 
     @Test
@@ -152,6 +310,7 @@ class BeerServiceTest {
         int quantityToIncrement = beerToIncrementDTO.getMax();
 
         assertThrows(BeerStockExceededException.class, () -> beerService.increment(beerToIncrementDTO.getId(), quantityToIncrement));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -159,15 +318,18 @@ class BeerServiceTest {
         BeerDTO beerToDecrementDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer beerToDecrement = beerMapper.toModel(beerToDecrementDTO);
 
-        when(beerRepository.findById(beerToDecrementDTO.getId())).thenReturn(Optional.of(beerToDecrement));
-        when(beerRepository.save(beerToDecrement)).thenReturn(beerToDecrement);
         int quantityToDecrement = 5;
         int expectedQuantityAfterDecrement = beerToDecrementDTO.getQuantity() - quantityToDecrement;
+        beerToDecrement.setQuantity(expectedQuantityAfterDecrement);
+
+        when(beerRepository.adjustQuantity(beerToDecrementDTO.getId(), -quantityToDecrement)).thenReturn(1);
+        when(beerRepository.findById(beerToDecrementDTO.getId())).thenReturn(Optional.of(beerToDecrement));
 
         BeerDTO decrementedBeerDTO = beerService.decrement(beerToDecrementDTO.getId(), quantityToDecrement);
 
         assertThat(expectedQuantityAfterDecrement, equalTo(decrementedBeerDTO.getQuantity()));
         assertThat(decrementedBeerDTO.getQuantity(), greaterThan(0));
+        verify(eventPublisher, times(1)).publishEvent(new BeerChangedEvent(decrementedBeerDTO, StockMovementType.DECREMENTED, -quantityToDecrement));
     }
 
     @Test
@@ -190,4 +352,74 @@ class BeerServiceTest {
 
         assertThrows(BeerNegativeQuantityException.class, () -> beerService.decrement(beerToDecrementDTO.getId(), quantityToDecrement));
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenDecrementIsCalledOnShardedBeerThenTheShardsAreAdjusted() throws BeerNotFoundException, BeerNegativeQuantityException {
+        BeerDTO beerToDecrementDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer beerToDecrement = beerMapper.toModel(beerToDecrementDTO);
+        beerToDecrement.setShards(4);
+        beerToDecrement.setQuantity(0);
+
+        when(beerRepository.findById(beerToDecrementDTO.getId())).thenReturn(Optional.of(beerToDecrement));
+        when(stockShards.adjust(beerToDecrement, -5)).thenReturn(true);
+        when(stockShards.quantity(beerToDecrementDTO.getId())).thenReturn(beerToDecrementDTO.getQuantity() - 5);
+
+        BeerDTO decrementedBeerDTO = beerService.decrement(beerToDecrementDTO.getId(), 5);
+
+        assertThat(decrementedBeerDTO.getQuantity(), equalTo(beerToDecrementDTO.getQuantity() - 5));
+        verify(eventPublisher, times(1)).publishEvent(new BeerChangedEvent(decrementedBeerDTO, StockMovementType.DECREMENTED, -5));
+    }
+
+    @Test
+    void whenShardIsCalledInLedgerModeThenAnExceptionShouldBeThrown() throws Exception {
+        when(stockLedger.getIfAvailable()).thenReturn(mock(StockLedger.class));
+
+        assertThrows(BeerShardingNotSupportedException.class, () -> beerService.shard(1L, 4));
+        verify(stockShards, never()).reshard(any(), anyInt());
+    }
+
+    @Test
+    void whenReserveIsCalledOnAShardedBeerThenAnExceptionShouldBeThrown() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer beer = beerMapper.toModel(beerDTO);
+        beer.setShards(4);
+
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+
+        assertThrows(BeerReservationNotSupportedException.class, () -> beerService.reserve(beerDTO.getId(), 5, null));
+        verifyNoInteractions(stockReservations);
+    }
+
+    @Test
+    void whenABeerIsReservedAgainThenItIsLoadedByIdOnceUntilItChanges() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer beer = beerMapper.toModel(beerDTO);
+
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+
+        beerService.reserve(beerDTO.getId(), 5, null);
+        beerService.reserve(beerDTO.getId(), 5, null);
+        verify(beerRepository, times(1)).findById(beerDTO.getId());
+
+        beerCache.onBeerChanged(BeerChangedEvent.adjusted(beerDTO, -5));
+        beerService.reserve(beerDTO.getId(), 5, null);
+        verify(beerRepository, times(2)).findById(beerDTO.getId());
+    }
+
+    @Test
+    void whenAReservationIsCommittedThenItIsRecordedAsADecrement() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer beer = beerMapper.toModel(beerDTO);
+
+        when(stockReservations.commit("reservation")).thenReturn(new ReservationDTO("reservation", beerDTO.getId(), 4, Instant.now()));
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+
+        BeerDTO committedBeerDTO = beerService.commitReservation("reservation");
+
+        verify(eventPublisher, times(1)).publishEvent(new BeerChangedEvent(committedBeerDTO, StockMovementType.DECREMENTED, -4));
+    }
+
+    private double singleFlightCalls(String result) {
+        return meterRegistry.counter("beerstock.singleflight.calls", "result", result).count();
+    }
+}
@@ -0,0 +1,111 @@
+package com.beerstock.services;
+
+import com.beerstock.config.IdempotencyProperties;
+import com.beerstock.entities.IdempotencyRecord;
+import com.beerstock.enums.IdempotencyClaimStatus;
+import com.beerstock.repositories.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+    private static final Instant NOW = Instant.parse("2021-04-01T12:00:00Z");
+    private static final String FINGERPRINT = "PATCH /api/v1/beers/1/decrement 5d41402abc4b2a76b9719d911017c592";
+
+    @Mock
+    private IdempotencyRecordRepository recordRepository;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        properties.setTtl(Duration.ofHours(1));
+        idempotencyStore = new IdempotencyStore(recordRepository, taskScheduler, properties, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void whenAKeyIsClaimedTwiceBeforeCompletingThenTheSecondClaimIsInProgress() {
+        assertThat(idempotencyStore.claim("key", FINGERPRINT).getStatus(), equalTo(IdempotencyClaimStatus.CLAIMED));
+        assertThat(idempotencyStore.claim("key", FINGERPRINT).getStatus(), equalTo(IdempotencyClaimStatus.IN_PROGRESS));
+        assertThat(idempotencyStore.claim("key", "POST /api/v1/beers").getStatus(), equalTo(IdempotencyClaimStatus.MISMATCH));
+
+        idempotencyStore.release("key");
+        assertThat(idempotencyStore.claim("key", FINGERPRINT).getStatus(), equalTo(IdempotencyClaimStatus.CLAIMED));
+    }
+
+    @Test
+    void whenAKeyIsCompletedThenItsResponseIsReplayedFromMemory() {
+        idempotencyStore.claim("key", FINGERPRINT);
+        idempotencyStore.complete("key", response());
+
+        IdempotencyStore.Claim claim = idempotencyStore.claim("key", FINGERPRINT);
+        assertThat(claim.getStatus(), equalTo(IdempotencyClaimStatus.REPLAY));
+        assertThat(claim.getResponse().getStatus(), equalTo(200));
+        verify(recordRepository, never()).save(any());
+    }
+
+    @Test
+    void whenPersistentThenCompletedResponsesAreSavedAndReadBackOnAMemoryMiss() {
+        properties.setPersistent(true);
+        idempotencyStore.claim("key", FINGERPRINT);
+        idempotencyStore.complete("key", response());
+
+        ArgumentCaptor<IdempotencyRecord> record = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(recordRepository).save(record.capture());
+        assertThat(record.getValue().getCreatedAt(), equalTo(NOW));
+
+        when(recordRepository.findById("other")).thenReturn(Optional.of(
+                new IdempotencyRecord("other", FINGERPRINT, 201, "application/json", new byte[0], NOW.minus(Duration.ofMinutes(30)))));
+        assertThat(idempotencyStore.claim("other", FINGERPRINT).getStatus(), equalTo(IdempotencyClaimStatus.REPLAY));
+    }
+
+    @Test
+    void whenPersistingFailsThenTheRetryIsStillReplayedFromMemory() {
+        properties.setPersistent(true);
+        when(recordRepository.save(any())).thenThrow(new DataAccessResourceFailureException("database is down"));
+        idempotencyStore.claim("key", FINGERPRINT);
+        idempotencyStore.complete("key", response());
+
+        IdempotencyStore.Claim claim = idempotencyStore.claim("key", FINGERPRINT);
+        assertThat(claim.getStatus(), equalTo(IdempotencyClaimStatus.REPLAY));
+        assertThat(claim.getResponse().getBody(), equalTo(response().getBody()));
+        verify(recordRepository, never()).findById(any());
+    }
+
+    @Test
+    void whenAPersistedResponseIsExpiredThenTheKeyIsClaimedAgain() {
+        properties.setPersistent(true);
+        when(recordRepository.findById("key")).thenReturn(Optional.of(
+                new IdempotencyRecord("key", FINGERPRINT, 200, "application/json", new byte[0], NOW.minus(Duration.ofHours(2)))));
+
+        assertThat(idempotencyStore.claim("key", FINGERPRINT).getStatus(), equalTo(IdempotencyClaimStatus.CLAIMED));
+    }
+
+    private static IdempotencyStore.StoredResponse response() {
+        return new IdempotencyStore.StoredResponse(FINGERPRINT, 200, "application/json", "{\"quantity\":7}".getBytes());
+    }
+}
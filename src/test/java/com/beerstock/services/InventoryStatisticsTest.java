@@ -0,0 +1,117 @@
+package com.beerstock.services;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.InventoryStatsDTO;
+import com.beerstock.dtos.InventoryTotalsDTO;
+import com.beerstock.enums.BeerType;
+import com.beerstock.repositories.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest
+class InventoryStatisticsTest {
+    @Autowired
+    private InventoryStatistics inventoryStatistics;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BeerDTO brahma;
+    private BeerDTO skol;
+    private BeerDTO colorado;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        beerRepository.deleteAll();
+        inventoryStatistics.reload();
+        brahma = beerService.create(beer("Brahma", "Ambev", BeerType.LAGER, 10, 50));
+        skol = beerService.create(beer("Skol", "Ambev", BeerType.PILSEN, 0, 50));
+        colorado = beerService.create(beer("Colorado Indica", "Colorado", BeerType.IPA, 30, 100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+        inventoryStatistics.reload();
+    }
+
+    @Test
+    void whenBeersAreCreatedThenTheTotalsIncludeThem() {
+        InventoryStatsDTO stats = inventoryStatistics.statistics();
+
+        assertTotals(stats.getTotal(), 3, 40, 200, 1);
+        assertThat(stats.getTotal().getFillRatio(), closeTo(0.2, 1e-9));
+        assertThat(stats.getByType().stream().map(InventoryTotalsDTO::getGroup).collect(Collectors.toList()), contains("LAGER", "IPA", "PILSEN"));
+        assertThat(stats.getByBrand().stream().map(InventoryTotalsDTO::getGroup).collect(Collectors.toList()), contains("Ambev", "Colorado"));
+        assertTotals(stats.getByBrand().get(0), 2, 10, 100, 1);
+    }
+
+    @Test
+    void whenStockIsAdjustedThenTheUnitsAndSkusAtZeroFollow() throws Exception {
+        beerService.decrement(brahma.getId(), 10);
+        beerService.increment(skol.getId(), 5);
+
+        assertTotals(inventoryStatistics.statistics().getTotal(), 3, 35, 200, 1);
+        assertThat(inventoryStatistics.reconcile(), equalTo(0));
+    }
+
+    @Test
+    void whenABeerIsDeletedOrShardedThenTheTotalsStayInSyncWithTheTable() throws Exception {
+        beerService.deleteById(skol.getId());
+        beerService.shard(colorado.getId(), 4);
+        beerService.decrement(colorado.getId(), 30);
+
+        assertTotals(inventoryStatistics.statistics().getTotal(), 2, 10, 150, 1);
+        assertThat(inventoryStatistics.reconcile(), equalTo(0));
+    }
+
+    @Test
+    void whenTheTableChangesBehindTheServiceThenReconciliationFixesTheDriftOnTheSecondRun() {
+        jdbcTemplate.update("update beer set quantity = 0 where id = ?", brahma.getId());
+
+        assertThat(inventoryStatistics.reconcile(), equalTo(0));
+        assertTotals(inventoryStatistics.statistics().getTotal(), 3, 40, 200, 1);
+        assertThat(inventoryStatistics.reconcile(), equalTo(1));
+        assertTotals(inventoryStatistics.statistics().getTotal(), 3, 30, 200, 2);
+        assertThat(inventoryStatistics.reconcile(), equalTo(0));
+    }
+
+    @Test
+    void whenADifferenceIsSeenOnlyOnceThenItIsNotCorrected() {
+        jdbcTemplate.update("update beer set quantity = 0 where id = ?", brahma.getId());
+        assertThat(inventoryStatistics.reconcile(), equalTo(0));
+
+        jdbcTemplate.update("update beer set quantity = 10 where id = ?", brahma.getId());
+        assertThat(inventoryStatistics.reconcile(), equalTo(0));
+        assertTotals(inventoryStatistics.statistics().getTotal(), 3, 40, 200, 1);
+    }
+
+    private void assertTotals(InventoryTotalsDTO totals, long skus, long unitsOnHand, long capacity, long skusAtZero) {
+        assertThat(totals.getSkus(), equalTo(skus));
+        assertThat(totals.getUnitsOnHand(), equalTo(unitsOnHand));
+        assertThat(totals.getCapacity(), equalTo(capacity));
+        assertThat(totals.getSkusAtZero(), equalTo(skusAtZero));
+    }
+
+    private static BeerDTO beer(String name, String brand, BeerType type, int quantity, int max) {
+        return BeerDTOBuilder.builder().id(null).name(name).brand(brand).type(type).quantity(quantity).max(max).build().toBeerDTO();
+    }
+}
@@ -0,0 +1,111 @@
+package com.beerstock.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Timeout(10)
+class SingleFlightTest {
+    private static final int CALLERS = 8;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void whenCallsOverlapThenOneReadIsRunAndItsResultShared() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+
+        List<Future<Object>> results = callConcurrently("key", () -> {
+            reads.incrementAndGet();
+            await(release);
+            return result;
+        });
+        awaitCollapsed(CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> future : results) assertThat(future.get(), sameInstance(result));
+        assertThat(reads.get(), equalTo(1));
+        assertThat(calls("executed"), equalTo(1.0));
+        assertThat(singleFlight.inFlight(), equalTo(0));
+    }
+
+    @Test
+    void whenTheReadFailsThenEveryWaiterGetsTheException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Object>> results = callConcurrently("key", () -> {
+            await(release);
+            throw new NoSuchElementException("gone");
+        });
+        awaitCollapsed(CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> future : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertThat(e.getCause(), instanceOf(NoSuchElementException.class));
+        }
+        assertThat(singleFlight.inFlight(), equalTo(0));
+    }
+
+    @Test
+    void whenTheReadHasCompletedThenTheNextCallRunsItAgain() {
+        AtomicInteger reads = new AtomicInteger();
+
+        singleFlight.execute("test", "key", reads::incrementAndGet);
+        singleFlight.execute("test", "key", reads::incrementAndGet);
+        singleFlight.execute("test", "other", reads::incrementAndGet);
+
+        assertThat(reads.get(), equalTo(3));
+        assertThat(calls("collapsed"), equalTo(0.0));
+    }
+
+    private List<Future<Object>> callConcurrently(Object key, Supplier<Object> read) {
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) results.add(executor.submit(() -> singleFlight.execute("test", key, read)));
+        return results;
+    }
+
+    private void awaitCollapsed(int collapsed) throws InterruptedException {
+        while (calls("collapsed") < collapsed) Thread.sleep(5);
+    }
+
+    private double calls(String result) {
+        return meterRegistry.counter("beerstock.singleflight.calls", "result", result).count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
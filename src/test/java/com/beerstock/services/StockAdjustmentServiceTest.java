@@ -0,0 +1,91 @@
+package com.beerstock.services;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.StockAdjustmentDTO;
+import com.beerstock.dtos.StockOperationDTO;
+import com.beerstock.dtos.StockOperationResultDTO;
+import com.beerstock.enums.StockAdjustmentMode;
+import com.beerstock.enums.StockOperationStatus;
+import com.beerstock.repositories.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest
+class StockAdjustmentServiceTest {
+    @Autowired
+    private StockAdjustmentService stockAdjustmentService;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    private BeerDTO lager;
+    private BeerDTO stout;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lager = beerService.create(BeerDTOBuilder.builder().id(null).name("Lager").quantity(10).max(50).build().toBeerDTO());
+        stout = beerService.create(BeerDTOBuilder.builder().id(null).name("Stout").quantity(10).max(20).build().toBeerDTO());
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenAllOperationsAreValidThenTheyShouldAllBeApplied() throws Exception {
+        List<StockOperationResultDTO> results = stockAdjustmentService.adjust(adjustment(StockAdjustmentMode.ALL_OR_NOTHING,
+                operation(lager.getId(), 5), operation(stout.getId(), -3), operation(lager.getId(), 1)));
+
+        assertThat(statuses(results), contains(StockOperationStatus.APPLIED, StockOperationStatus.APPLIED, StockOperationStatus.APPLIED));
+        assertThat(results.get(2).getQuantity(), equalTo(16));
+        assertThat(beerService.findByName(lager.getName()).getQuantity(), equalTo(16));
+        assertThat(beerService.findByName(stout.getName()).getQuantity(), equalTo(7));
+    }
+
+    @Test
+    void whenAnOperationFailsInAllOrNothingModeThenNoneShouldBeApplied() throws Exception {
+        List<StockOperationResultDTO> results = stockAdjustmentService.adjust(adjustment(StockAdjustmentMode.ALL_OR_NOTHING,
+                operation(lager.getId(), 5), operation(stout.getId(), 11), operation(0L, 1)));
+
+        assertThat(statuses(results), contains(StockOperationStatus.ROLLED_BACK, StockOperationStatus.EXCEEDED, StockOperationStatus.NOT_FOUND));
+        assertThat(beerService.findByName(lager.getName()).getQuantity(), equalTo(10));
+        assertThat(beerService.findByName(stout.getName()).getQuantity(), equalTo(10));
+    }
+
+    @Test
+    void whenAnOperationFailsInBestEffortModeThenTheOthersShouldBeApplied() throws Exception {
+        List<StockOperationResultDTO> results = stockAdjustmentService.adjust(adjustment(StockAdjustmentMode.BEST_EFFORT,
+                operation(lager.getId(), 5), operation(stout.getId(), -11)));
+
+        assertThat(statuses(results), contains(StockOperationStatus.APPLIED, StockOperationStatus.NEGATIVE));
+        assertThat(beerService.findByName(lager.getName()).getQuantity(), equalTo(15));
+        assertThat(beerService.findByName(stout.getName()).getQuantity(), equalTo(10));
+    }
+
+    private StockAdjustmentDTO adjustment(StockAdjustmentMode mode, StockOperationDTO... operations) {
+        return StockAdjustmentDTO.builder().mode(mode).operations(List.of(operations)).build();
+    }
+
+    private StockOperationDTO operation(Long id, int delta) {
+        return StockOperationDTO.builder().id(id).delta(delta).build();
+    }
+
+    private List<StockOperationStatus> statuses(List<StockOperationResultDTO> results) {
+        return results.stream().map(StockOperationResultDTO::getStatus).collect(Collectors.toList());
+    }
+}
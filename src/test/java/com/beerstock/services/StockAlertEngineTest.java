@@ -0,0 +1,139 @@
+package com.beerstock.services;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.config.StockAlertProperties;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.StockAlertDTO;
+import com.beerstock.enums.StockAlertType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockAlertEngineTest {
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private Clock clock;
+
+    private StockAlertEngine stockAlertEngine;
+
+    @BeforeEach
+    void setUp() {
+        StockAlertProperties properties = new StockAlertProperties();
+        properties.setWindow(Duration.ofHours(1));
+        properties.setBuckets(60);
+        properties.setDepletionHorizon(Duration.ofHours(2));
+        stockAlertEngine = new StockAlertEngine(properties, eventPublisher, clock);
+        when(clock.millis()).thenReturn(Duration.ofDays(1).toMillis());
+    }
+
+    @Test
+    void whenQuantityCrossesTheReorderPointThenASingleLowStockAlertIsRaised() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().quantity(12).build().toBeerDTO();
+        beerDTO.setReorderPoint(10);
+
+        decrement(beerDTO, 1);
+        decrement(beerDTO, 1);
+        decrement(beerDTO, 1);
+
+        ArgumentCaptor<StockAlertDTO> alert = ArgumentCaptor.forClass(StockAlertDTO.class);
+        verify(eventPublisher, times(1)).publishEvent(alert.capture());
+        assertThat(alert.getValue().getType(), equalTo(StockAlertType.LOW_STOCK));
+        assertThat(alert.getValue().getQuantity(), equalTo(10));
+    }
+
+    @Test
+    void whenABeerIsCreatedAtItsReorderPointThenALowStockAlertIsRaised() {
+        BeerDTO lowBeerDTO = BeerDTOBuilder.builder().id(1L).quantity(10).build().toBeerDTO();
+        lowBeerDTO.setReorderPoint(10);
+        BeerDTO stockedBeerDTO = BeerDTOBuilder.builder().id(2L).quantity(30).build().toBeerDTO();
+        stockedBeerDTO.setReorderPoint(10);
+
+        stockAlertEngine.onBeerChanged(BeerChangedEvent.created(lowBeerDTO));
+        stockAlertEngine.onBeerChanged(BeerChangedEvent.created(stockedBeerDTO));
+
+        ArgumentCaptor<StockAlertDTO> alert = ArgumentCaptor.forClass(StockAlertDTO.class);
+        verify(eventPublisher, times(1)).publishEvent(alert.capture());
+        assertThat(alert.getValue().getType(), equalTo(StockAlertType.LOW_STOCK));
+        assertThat(alert.getValue().getId(), equalTo(1L));
+    }
+
+    @Test
+    void whenTheReorderPointIsRaisedAboveTheQuantityThenALowStockAlertIsRaised() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().quantity(8).build().toBeerDTO();
+        stockAlertEngine.onBeerChanged(BeerChangedEvent.created(beerDTO));
+        verify(eventPublisher, never()).publishEvent(any());
+
+        beerDTO.setReorderPoint(10);
+        stockAlertEngine.onBeerChanged(BeerChangedEvent.updated(beerDTO));
+
+        ArgumentCaptor<StockAlertDTO> alert = ArgumentCaptor.forClass(StockAlertDTO.class);
+        verify(eventPublisher, times(1)).publishEvent(alert.capture());
+        assertThat(alert.getValue().getType(), equalTo(StockAlertType.LOW_STOCK));
+        assertThat(alert.getValue().getReorderPoint(), equalTo(10));
+    }
+
+    @Test
+    void whenStockIsRestockedAboveTheReorderPointThenTheAlertIsArmedAgain() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().quantity(11).build().toBeerDTO();
+        beerDTO.setReorderPoint(10);
+
+        decrement(beerDTO, 1);
+        beerDTO.setQuantity(30);
+        stockAlertEngine.onIncrement(beerDTO);
+        beerDTO.setQuantity(11);
+        decrement(beerDTO, 1);
+
+        verify(eventPublisher, times(2)).publishEvent(any(StockAlertDTO.class));
+    }
+
+    @Test
+    void whenConsumptionWouldDepleteStockWithinTheHorizonThenADepletionAlertIsRaised() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().quantity(100).max(500).build().toBeerDTO();
+
+        decrement(beerDTO, 20);
+        verify(eventPublisher, never()).publishEvent(any());
+
+        decrement(beerDTO, 40);
+
+        ArgumentCaptor<StockAlertDTO> alert = ArgumentCaptor.forClass(StockAlertDTO.class);
+        verify(eventPublisher, times(1)).publishEvent(alert.capture());
+        assertThat(alert.getValue().getType(), equalTo(StockAlertType.DEPLETION_FORECAST));
+        assertThat(alert.getValue().getUnitsPerHour(), closeTo(60.0, 0.001));
+        assertThat(alert.getValue().getProjectedDepletionAt(), equalTo(Instant.ofEpochMilli(clock.millis()).plus(Duration.ofMinutes(40))));
+    }
+
+    @Test
+    void whenConsumptionLeavesTheWindowThenTheRateDropsBack() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().quantity(100).max(500).build().toBeerDTO();
+        decrement(beerDTO, 60);
+        verify(eventPublisher, times(1)).publishEvent(any(StockAlertDTO.class));
+
+        when(clock.millis()).thenReturn(Duration.ofDays(1).plusHours(2).toMillis());
+        decrement(beerDTO, 1);
+        when(clock.millis()).thenReturn(Duration.ofDays(1).plusHours(4).toMillis());
+        decrement(beerDTO, 30);
+
+        verify(eventPublisher, times(2)).publishEvent(any(StockAlertDTO.class));
+    }
+
+    private void decrement(BeerDTO beerDTO, int units) {
+        beerDTO.setQuantity(beerDTO.getQuantity() - units);
+        stockAlertEngine.onDecrement(beerDTO, units);
+    }
+}
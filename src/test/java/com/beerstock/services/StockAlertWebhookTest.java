@@ -0,0 +1,119 @@
+package com.beerstock.services;
+
+import com.beerstock.config.StockAlertProperties;
+import com.beerstock.dtos.StockAlertDTO;
+import com.beerstock.enums.StockAlertType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+class StockAlertWebhookTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BlockingQueue<String> requests = new LinkedBlockingQueue<>();
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    private volatile int responseStatus = 204;
+    private volatile boolean blocking;
+
+    private HttpServer server;
+    private StockAlertWebhook webhook;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/alerts", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        released.countDown();
+        if (webhook != null) webhook.stop();
+        server.stop(0);
+    }
+
+    @Test
+    void whenAnAlertIsRaisedThenItIsPostedAsJson() throws Exception {
+        webhook = webhook(10);
+
+        webhook.onAlert(alert(1L));
+
+        String request = requests.poll(5, TimeUnit.SECONDS);
+        assertThat(request, notNullValue());
+        JsonNode body = new ObjectMapper().readTree(request);
+        assertThat(body.get("id").asLong(), equalTo(1L));
+        assertThat(body.get("type").asText(), equalTo(StockAlertType.LOW_STOCK.name()));
+        assertThat(body.get("quantity").asInt(), equalTo(10));
+    }
+
+    @Test
+    void whenTheBacklogIsFullThenFurtherAlertsAreCountedAsDropped() throws Exception {
+        blocking = true;
+        webhook = webhook(1);
+
+        webhook.onAlert(alert(1L));
+        assertThat(requests.poll(5, TimeUnit.SECONDS), notNullValue());
+        webhook.onAlert(alert(2L));
+        webhook.onAlert(alert(3L));
+
+        assertThat(dropped("backlog_full"), equalTo(1.0));
+    }
+
+    @Test
+    void whenTheEndpointFailsThenTheAlertIsCountedAsDropped() throws Exception {
+        responseStatus = 500;
+        webhook = webhook(10);
+
+        webhook.onAlert(alert(1L));
+        assertThat(requests.poll(5, TimeUnit.SECONDS), notNullValue());
+
+        for (int i = 0; i < 100 && dropped("post_failed") == 0; i++) Thread.sleep(50);
+        assertThat(dropped("post_failed"), equalTo(1.0));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.add(new String(exchange.getRequestBody().readAllBytes()));
+        if (blocking) {
+            try {
+                released.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        exchange.sendResponseHeaders(responseStatus, -1);
+        exchange.close();
+    }
+
+    private StockAlertWebhook webhook(int backlog) {
+        StockAlertProperties properties = new StockAlertProperties();
+        properties.setWebhookUrl(String.format("http://%s:%d/alerts", server.getAddress().getHostString(), server.getAddress().getPort()));
+        return new StockAlertWebhook(new RestTemplateBuilder(), properties, meterRegistry, backlog);
+    }
+
+    private double dropped(String reason) {
+        return meterRegistry.counter("beerstock.alerts.webhook.dropped", "reason", reason).count();
+    }
+
+    private static StockAlertDTO alert(Long id) {
+        return StockAlertDTO.builder().id(id).name("Brahma").type(StockAlertType.LOW_STOCK).quantity(10).reorderPoint(10).build();
+    }
+}
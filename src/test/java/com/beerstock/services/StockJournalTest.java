@@ -0,0 +1,89 @@
+package com.beerstock.services;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.repositories.StockMovementArchiveRepository;
+import com.beerstock.repositories.StockMovementRepository;
+import com.beerstock.repositories.StockSnapshotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "beerstock.journal.flush-interval=1h",
+        "beerstock.journal.snapshot-interval=1h",
+        "beerstock.journal.compaction-interval=1h",
+        "beerstock.journal.retention=0s"
+})
+class StockJournalTest {
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private StockJournal stockJournal;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private StockMovementArchiveRepository archiveRepository;
+
+    @Autowired
+    private StockSnapshotRepository snapshotRepository;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenStockIsQueriedAtAPointInTimeThenMovementsUpToThatTimeAreReplayed() throws Exception {
+        Instant beforeCreation = Instant.now();
+        Thread.sleep(10);
+        BeerDTO beerDTO = beerService.create(BeerDTOBuilder.builder().id(null).quantity(10).max(50).build().toBeerDTO());
+        beerService.increment(beerDTO.getId(), 5);
+        Thread.sleep(10);
+        Instant afterIncrement = Instant.now();
+        Thread.sleep(10);
+        beerService.decrement(beerDTO.getId(), 3);
+
+        assertThat(beerService.stockAt(beerDTO.getId(), Instant.now()).getQuantity(), equalTo(12));
+        assertThat(beerService.stockAt(beerDTO.getId(), afterIncrement).getQuantity(), equalTo(15));
+        assertThrows(BeerNotFoundException.class, () -> beerService.stockAt(beerDTO.getId(), beforeCreation));
+
+        stockJournal.snapshot();
+        beerService.increment(beerDTO.getId(), 1);
+
+        assertThat(snapshotRepository.findFirstByBeerIdOrderByMovementIdDesc(beerDTO.getId()).orElseThrow().getQuantity(), equalTo(12));
+        assertThat(beerService.stockAt(beerDTO.getId(), Instant.now()).getQuantity(), equalTo(13));
+        assertThat(beerService.stockAt(beerDTO.getId(), afterIncrement).getQuantity(), equalTo(15));
+    }
+
+    @Test
+    void whenJournalIsCompactedThenSnapshottedMovementsAreArchived() throws Exception {
+        BeerDTO beerDTO = beerService.create(BeerDTOBuilder.builder().id(null).quantity(10).max(50).build().toBeerDTO());
+        beerService.increment(beerDTO.getId(), 5);
+        stockJournal.snapshot();
+        beerService.deleteById(beerDTO.getId());
+        stockJournal.flush();
+
+        stockJournal.compact();
+
+        assertThat(archiveRepository.count(), greaterThan(0L));
+        assertThat(movementRepository.count(), equalTo(1L));
+        assertThat(beerService.stockAt(beerDTO.getId(), Instant.now()).getQuantity(), equalTo(0));
+    }
+}
@@ -0,0 +1,166 @@
+package com.beerstock.services;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.StockAdjustmentDTO;
+import com.beerstock.dtos.StockOperationDTO;
+import com.beerstock.dtos.StockOperationResultDTO;
+import com.beerstock.entities.Beer;
+import com.beerstock.enums.StockAdjustmentMode;
+import com.beerstock.enums.StockOperationStatus;
+import com.beerstock.exceptions.BeerNegativeQuantityException;
+import com.beerstock.exceptions.BeerStockExceededException;
+import com.beerstock.repositories.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {"beerstock.ledger.enabled=true", "beerstock.ledger.flush-interval=1h"})
+class StockLedgerTest {
+    @TempDir
+    static Path ledgerDirectory;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private StockAdjustmentService stockAdjustmentService;
+
+    @DynamicPropertySource
+    static void ledgerProperties(DynamicPropertyRegistry registry) {
+        registry.add("beerstock.ledger.directory", () -> ledgerDirectory.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenIncrementIsCalledThenQuantityIsWrittenOnlyOnFlush() throws Exception {
+        BeerDTO beerDTO = beerService.create(BeerDTOBuilder.builder().id(null).quantity(10).max(50).build().toBeerDTO());
+
+        BeerDTO incrementedBeerDTO = beerService.increment(beerDTO.getId(), 5);
+        beerService.decrement(beerDTO.getId(), 2);
+
+        assertThat(incrementedBeerDTO.getQuantity(), equalTo(15));
+        assertThat(beerService.findByName(beerDTO.getName()).getQuantity(), equalTo(13));
+        assertThat(beerRepository.findById(beerDTO.getId()).orElseThrow().getQuantity(), equalTo(10));
+
+        stockLedger.flush();
+
+        assertThat(beerRepository.findById(beerDTO.getId()).orElseThrow().getQuantity(), equalTo(13));
+    }
+
+    @Test
+    void whenAdjustmentWouldBreakTheBoundsThenAnExceptionShouldBeThrown() throws Exception {
+        BeerDTO beerDTO = beerService.create(BeerDTOBuilder.builder().id(null).quantity(10).max(50).build().toBeerDTO());
+
+        assertThrows(BeerStockExceededException.class, () -> beerService.increment(beerDTO.getId(), 41));
+        assertThrows(BeerNegativeQuantityException.class, () -> beerService.decrement(beerDTO.getId(), 11));
+        assertThat(beerService.findByName(beerDTO.getName()).getQuantity(), equalTo(10));
+    }
+
+    @Test
+    void whenABatchWouldTakeReservedUnitsThenItIsRejectedLikeASingleDecrement() throws Exception {
+        BeerDTO beerDTO = beerService.create(BeerDTOBuilder.builder().id(null).quantity(10).max(50).build().toBeerDTO());
+        Beer beer = beerRepository.findById(beerDTO.getId()).orElseThrow();
+        beer.setReserved(4);
+        beerRepository.save(beer);
+
+        List<StockOperationResultDTO> results = stockAdjustmentService.adjust(StockAdjustmentDTO.builder()
+                .mode(StockAdjustmentMode.BEST_EFFORT)
+                .operations(List.of(
+                        StockOperationDTO.builder().id(beerDTO.getId()).delta(-7).build(),
+                        StockOperationDTO.builder().id(beerDTO.getId()).delta(41).build(),
+                        StockOperationDTO.builder().id(beerDTO.getId()).delta(-6).build()))
+                .build());
+
+        assertThat(results.stream().map(StockOperationResultDTO::getStatus).collect(Collectors.toList()),
+                contains(StockOperationStatus.NEGATIVE, StockOperationStatus.EXCEEDED, StockOperationStatus.APPLIED));
+        assertThrows(BeerNegativeQuantityException.class, () -> beerService.decrement(beerDTO.getId(), 1));
+    }
+
+    @Test
+    void whenLedgerRestartsThenUnflushedDeltasAreReplayed() throws Exception {
+        BeerDTO beerDTO = beerService.create(BeerDTOBuilder.builder().id(null).quantity(10).max(50).build().toBeerDTO());
+        stockLedger.stop();
+
+        try (StockLedgerLog crashedLog = new StockLedgerLog(ledgerDirectory, true)) {
+            crashedLog.open(0);
+            crashedLog.append(beerDTO.getId(), 5);
+            crashedLog.append(beerDTO.getId(), -2);
+        }
+        stockLedger.start();
+
+        assertThat(beerRepository.findById(beerDTO.getId()).orElseThrow().getQuantity(), equalTo(13));
+    }
+
+    @Test
+    void whenAnAllOrNothingBatchIsRejectedThenTheLedgerIsLeftUntouched() throws Exception {
+        BeerDTO lager = beerService.create(BeerDTOBuilder.builder().id(null).name("Lager").quantity(10).max(50).build().toBeerDTO());
+        BeerDTO stout = beerService.create(BeerDTOBuilder.builder().id(null).name("Stout").quantity(10).max(20).build().toBeerDTO());
+
+        List<StockOperationResultDTO> results = stockAdjustmentService.adjust(StockAdjustmentDTO.builder()
+                .mode(StockAdjustmentMode.ALL_OR_NOTHING)
+                .operations(List.of(
+                        StockOperationDTO.builder().id(lager.getId()).delta(5).build(),
+                        StockOperationDTO.builder().id(stout.getId()).delta(11).build()))
+                .build());
+        stockLedger.flush();
+
+        assertThat(results.stream().map(StockOperationResultDTO::getStatus).collect(Collectors.toList()),
+                contains(StockOperationStatus.ROLLED_BACK, StockOperationStatus.EXCEEDED));
+        assertThat(beerService.findByName(lager.getName()).getQuantity(), equalTo(10));
+        assertThat(beerRepository.findById(lager.getId()).orElseThrow().getVersion(), equalTo(lager.getVersion()));
+    }
+
+    @Test
+    void whenDeltasAreAppendedConcurrentlyThenEveryOneIsSyncedToTheSegment(@TempDir Path directory) throws Exception {
+        int threads = 8;
+        int appends = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (StockLedgerLog appendLog = new StockLedgerLog(directory, true)) {
+            appendLog.open(0);
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                long beerId = thread % 2;
+                tasks.add(() -> {
+                    for (int i = 0; i < appends; i++) appendLog.append(beerId, 1);
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) future.get();
+
+            long segment = appendLog.rotate();
+            assertThat(appendLog.read(segment), equalTo(Map.of(0L, threads / 2 * appends, 1L, threads / 2 * appends)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
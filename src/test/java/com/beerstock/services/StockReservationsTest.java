@@ -0,0 +1,222 @@
+package com.beerstock.services;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.config.StockReservationProperties;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.ReservationDTO;
+import com.beerstock.exceptions.BeerNegativeQuantityException;
+import com.beerstock.exceptions.BeerShardingNotSupportedException;
+import com.beerstock.exceptions.BeerStockUnavailableException;
+import com.beerstock.exceptions.ReservationNotFoundException;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.repositories.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class StockReservationsTest {
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private StockReservationProperties properties;
+
+    private BeerDTO brahma;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        brahma = beerService.create(BeerDTOBuilder.builder().id(null).quantity(10).max(50).build().toBeerDTO());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenUnitsAreReservedThenOnlyTheOthersCanBeDecremented() throws Exception {
+        beerService.reserve(brahma.getId(), 7, null);
+
+        assertThat(beerService.findByName(brahma.getName()).getReserved(), equalTo(7));
+        assertThrows(BeerNegativeQuantityException.class, () -> beerService.decrement(brahma.getId(), 4));
+        assertThrows(BeerStockUnavailableException.class, () -> beerService.reserve(brahma.getId(), 4, null));
+        assertThat(beerService.decrement(brahma.getId(), 3).getQuantity(), equalTo(7));
+    }
+
+    @Test
+    void whenAReservationIsCommittedThenItsUnitsAreDecrementedOnce() throws Exception {
+        ReservationDTO reservation = beerService.reserve(brahma.getId(), 4, Duration.ofMinutes(1));
+
+        BeerDTO beerDTO = beerService.commitReservation(reservation.getId());
+
+        assertThat(beerDTO.getQuantity(), equalTo(6));
+        assertThat(beerDTO.getReserved(), equalTo(0));
+        assertThrows(ReservationNotFoundException.class, () -> beerService.commitReservation(reservation.getId()));
+        assertThrows(ReservationNotFoundException.class, () -> beerService.releaseReservation(reservation.getId()));
+    }
+
+    @Test
+    void whenAReservationIsReleasedThenItsUnitsAreAvailableAgain() throws Exception {
+        ReservationDTO reservation = beerService.reserve(brahma.getId(), 10, null);
+
+        beerService.releaseReservation(reservation.getId());
+
+        BeerDTO beerDTO = beerService.findByName(brahma.getName());
+        assertThat(beerDTO.getQuantity(), equalTo(10));
+        assertThat(beerDTO.getReserved(), equalTo(0));
+        assertThat(reservationRepository.count(), equalTo(0L));
+    }
+
+    @Test
+    void whenUnitsAreReservedThenTheBeerCannotBeSharded() throws Exception {
+        beerService.reserve(brahma.getId(), 1, null);
+
+        assertThrows(BeerShardingNotSupportedException.class, () -> beerService.shard(brahma.getId(), 4));
+    }
+
+    @Test
+    void whenAReservationExpiresThenTheNextTickReleasesIt() throws Exception {
+        MovableClock clock = new MovableClock(Instant.now());
+        StockReservations reservations = reservations(clock);
+        ReservationDTO reservation = reservations.reserve(brahma.getId(), 5, Duration.ofSeconds(30));
+
+        clock.advance(Duration.ofSeconds(29));
+        reservations.expire();
+        assertThat(reservedUnits(), equalTo(5));
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThrows(ReservationNotFoundException.class, () -> reservations.commit(reservation.getId()));
+        assertThat(reservedUnits(), equalTo(5));
+
+        clock.advance(properties.getTick());
+        reservations.expire();
+        assertThat(reservedUnits(), equalTo(0));
+        assertThat(reservations.openReservations(), equalTo(0));
+        assertThat(reservationRepository.count(), equalTo(0L));
+    }
+
+    @Test
+    void whenTheBeerNoLongerHoldsTheReservedUnitsThenTheCommitFails() throws Exception {
+        ReservationDTO reservation = beerService.reserve(brahma.getId(), 4, null);
+        transactionTemplate.executeWithoutResult(status -> beerRepository.releaseReserved(brahma.getId(), 4));
+
+        assertThrows(ReservationNotFoundException.class, () -> beerService.commitReservation(reservation.getId()));
+        assertThat(beerRepository.findById(brahma.getId()).orElseThrow().getQuantity(), equalTo(10));
+        assertThat(reservationRepository.count(), equalTo(1L));
+    }
+
+    @Test
+    void whenAnExpiredReservationCannotBeReleasedThenTheNextTickRetriesIt() throws Exception {
+        MovableClock clock = new MovableClock(Instant.now());
+        AtomicBoolean failing = new AtomicBoolean();
+        TransactionTemplate flakyTransactions = new TransactionTemplate(transactionTemplate.getTransactionManager()) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                if (failing.getAndSet(false)) throw new CannotCreateTransactionException("Connection refused");
+                return super.execute(action);
+            }
+        };
+        StockReservations reservations = new StockReservations(reservationRepository, beerRepository, flakyTransactions, eventPublisher,
+                taskScheduler, properties, clock);
+        reservations.reserve(brahma.getId(), 5, Duration.ofSeconds(30));
+
+        clock.advance(Duration.ofSeconds(30).plus(properties.getTick()));
+        failing.set(true);
+        reservations.expire();
+        assertThat(reservedUnits(), equalTo(5));
+        assertThat(reservations.openReservations(), equalTo(1));
+
+        clock.advance(properties.getTick());
+        reservations.expire();
+        assertThat(reservedUnits(), equalTo(0));
+        assertThat(reservations.openReservations(), equalTo(0));
+    }
+
+    @Test
+    void whenTheServiceRestartsThenOpenReservationsAreIndexedAgain() throws Exception {
+        MovableClock clock = new MovableClock(Instant.now());
+        ReservationDTO reservation = reservations(clock).reserve(brahma.getId(), 5, Duration.ofSeconds(30));
+
+        StockReservations restarted = reservations(clock);
+        restarted.start();
+        try {
+            assertThat(restarted.openReservations(), equalTo(1));
+            clock.advance(Duration.ofMinutes(1));
+            restarted.expire();
+            assertThat(reservedUnits(), equalTo(0));
+            assertThrows(ReservationNotFoundException.class, () -> restarted.release(reservation.getId()));
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    private StockReservations reservations(Clock clock) {
+        return new StockReservations(reservationRepository, beerRepository, transactionTemplate, eventPublisher, taskScheduler, properties, clock);
+    }
+
+    private int reservedUnits() {
+        return beerRepository.findById(brahma.getId()).orElseThrow().getReserved();
+    }
+
+    private static final class MovableClock extends Clock {
+        private Instant now;
+
+        private MovableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.beerstock.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+class TimingWheelTest {
+    private static final long TICK = 1000;
+
+    @Test
+    void whenTheWheelReachesADeadlineThenItsKeyExpires() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, TICK, 0);
+        wheel.schedule("a", 2500);
+        wheel.schedule("b", 4000);
+
+        assertThat(wheel.advance(2999), empty());
+        assertThat(wheel.advance(3000), contains("a"));
+        assertThat(wheel.advance(4000), contains("b"));
+        assertThat(wheel.size(), equalTo(0));
+    }
+
+    @Test
+    void whenADeadlineIsMoreThanATurnAwayThenItWaitsForItsTurn() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, TICK, 0);
+        wheel.schedule("later", 19_000);
+        wheel.schedule("soon", 3_000);
+
+        assertThat(wheel.advance(3_000), contains("soon"));
+        assertThat(wheel.advance(11_000), empty());
+        assertThat(wheel.advance(18_999), empty());
+        assertThat(wheel.advance(19_000), contains("later"));
+    }
+
+    @Test
+    void whenAKeyIsCancelledOrRescheduledThenOnlyItsLastDeadlineCounts() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, TICK, 0);
+        wheel.schedule("cancelled", 2_000);
+        wheel.schedule("moved", 2_000);
+        wheel.cancel("cancelled");
+        wheel.schedule("moved", 5_000);
+
+        assertThat(wheel.advance(4_000), empty());
+        assertThat(wheel.advance(5_000), contains("moved"));
+    }
+
+    @Test
+    void whenTheDeadlineHasPassedThenTheKeyExpiresOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, TICK, 10_000);
+        wheel.schedule("late", 1_000);
+
+        assertThat(wheel.advance(10_500), empty());
+        assertThat(wheel.advance(11_000), contains("late"));
+    }
+
+    @Test
+    void whenTheWheelIsAdvancedPastSeveralTurnsThenEveryDueKeyExpires() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, TICK, 0);
+        wheel.schedule("a", 1_000);
+        wheel.schedule("b", 7_000);
+        wheel.schedule("c", 30_000);
+        wheel.schedule("d", 90_000);
+
+        assertThat(wheel.advance(60_000), containsInAnyOrder("a", "b", "c"));
+        assertThat(wheel.size(), equalTo(1));
+    }
+}
@@ -0,0 +1,224 @@
+package com.beerstock.services;
+
+import com.beerstock.builders.BeerDTOBuilder;
+import com.beerstock.dtos.BeerDTO;
+import com.beerstock.dtos.BeerLocationsDTO;
+import com.beerstock.dtos.WarehouseDTO;
+import com.beerstock.dtos.WarehouseStockDTO;
+import com.beerstock.entities.Warehouse;
+import com.beerstock.entities.WarehouseStock;
+import com.beerstock.exceptions.BeerNegativeQuantityException;
+import com.beerstock.exceptions.BeerNotFoundException;
+import com.beerstock.exceptions.BeerShardingNotSupportedException;
+import com.beerstock.exceptions.BeerStockExceededException;
+import com.beerstock.exceptions.WarehouseAlreadyRegisteredException;
+import com.beerstock.exceptions.WarehouseNotFoundException;
+import com.beerstock.exceptions.WarehouseStockNotSupportedException;
+import com.beerstock.repositories.BeerRepository;
+import com.beerstock.repositories.WarehouseRepository;
+import com.beerstock.repositories.WarehouseStockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "beerstock.warehouses.rollup-interval=1h")
+class WarehouseServiceTest {
+    private static final String NORTH = "north";
+    private static final String SOUTH = "south";
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private WarehouseStockView stockView;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private WarehouseStockRepository stockRepository;
+
+    private BeerDTO brahma;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (String code : List.of(NORTH, SOUTH)) {
+            if (warehouseRepository.findByCode(code).isEmpty()) warehouseRepository.save(new Warehouse(null, code, code + " warehouse"));
+        }
+        brahma = beerService.create(BeerDTOBuilder.builder().id(null).quantity(10).max(50).build().toBeerDTO());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockRepository.deleteAll();
+        beerRepository.deleteAll();
+        stockView.load();
+    }
+
+    @Test
+    void whenWarehousesAreAdjustedThenTheBeerQuantityIsTheirSumPlusTheUnassignedUnits() throws Exception {
+        warehouseService.increment(brahma.getId(), NORTH, 20);
+        warehouseService.increment(brahma.getId(), SOUTH, 5);
+        BeerLocationsDTO locations = warehouseService.decrement(brahma.getId(), NORTH, 8);
+
+        assertThat(locations.getTotal(), equalTo(27L));
+        assertThat(locations.getUnassigned(), equalTo(10L));
+        assertThat(locations.getWarehouses(), contains(new WarehouseStockDTO(NORTH, 12), new WarehouseStockDTO(SOUTH, 5)));
+        assertThat(beerService.findByName(brahma.getName()).getQuantity(), equalTo(27));
+        assertThat(beerService.findByName(brahma.getName()).getLocated(), equalTo(17));
+    }
+
+    @Test
+    void whenTheWarehousesTogetherWouldExceedTheBeerMaximumThenTheIncrementIsRejected() throws Exception {
+        warehouseService.increment(brahma.getId(), NORTH, 30);
+
+        assertThrows(BeerStockExceededException.class, () -> warehouseService.increment(brahma.getId(), SOUTH, 11));
+        assertThrows(BeerStockExceededException.class, () -> beerService.increment(brahma.getId(), 11));
+        assertThat(warehouseService.increment(brahma.getId(), SOUTH, 10).getTotal(), equalTo(50L));
+        assertThat(stockRepository.findByBeerId(brahma.getId()).stream().mapToInt(WarehouseStock::getQuantity).sum(), equalTo(40));
+    }
+
+    @Test
+    void whenAWarehouseStaysWithinItsCapacityThenTheBeerRowIsNotWritten() throws Exception {
+        warehouseService.increment(brahma.getId(), NORTH, 20);
+        warehouseService.rollUp();
+        Long version = beerRepository.findById(brahma.getId()).orElseThrow().getVersion();
+
+        warehouseService.decrement(brahma.getId(), NORTH, 15);
+        warehouseService.increment(brahma.getId(), NORTH, 12);
+
+        assertThat(beerRepository.findById(brahma.getId()).orElseThrow().getVersion(), equalTo(version));
+        assertThat(beerService.findByName(brahma.getName()).getQuantity(), equalTo(27));
+        warehouseService.rollUp();
+        assertThat(beerRepository.findById(brahma.getId()).orElseThrow().getQuantity(), equalTo(27));
+    }
+
+    @Test
+    void whenAWarehouseHoldsIdleCapacityThenOtherIncrementsReclaimIt() throws Exception {
+        warehouseService.increment(brahma.getId(), NORTH, 40);
+        warehouseService.decrement(brahma.getId(), NORTH, 30);
+
+        assertThat(beerService.increment(brahma.getId(), 25).getQuantity(), equalTo(45));
+        assertThat(warehouseService.increment(brahma.getId(), SOUTH, 5).getTotal(), equalTo(50L));
+        assertThrows(BeerStockExceededException.class, () -> warehouseService.increment(brahma.getId(), NORTH, 1));
+        assertThat(beerRepository.findById(brahma.getId()).orElseThrow().getAllotted(), equalTo(15));
+    }
+
+    @Test
+    void whenAWarehouseWouldGoNegativeThenTheDecrementIsRejected() throws Exception {
+        warehouseService.increment(brahma.getId(), NORTH, 3);
+
+        assertThrows(BeerNegativeQuantityException.class, () -> warehouseService.decrement(brahma.getId(), NORTH, 4));
+        assertThrows(BeerNegativeQuantityException.class, () -> warehouseService.decrement(brahma.getId(), SOUTH, 1));
+        assertThat(warehouseService.locations(brahma.getId()).getTotal(), equalTo(13L));
+        warehouseService.rollUp();
+        assertThat(beerRepository.findById(brahma.getId()).orElseThrow().getLocated(), equalTo(3));
+    }
+
+    @Test
+    void whenUnitsAreHeldByAWarehouseThenAPlainDecrementCannotTakeThem() throws Exception {
+        warehouseService.increment(brahma.getId(), NORTH, 5);
+
+        assertThrows(BeerNegativeQuantityException.class, () -> beerService.decrement(brahma.getId(), 11));
+        assertThrows(BeerShardingNotSupportedException.class, () -> beerService.shard(brahma.getId(), 4));
+        assertThat(beerService.decrement(brahma.getId(), 10).getQuantity(), equalTo(5));
+    }
+
+    @Test
+    void whenTheBeerIsShardedThenWarehouseAdjustmentsAreRejected() throws Exception {
+        beerService.shard(brahma.getId(), 4);
+
+        assertThrows(WarehouseStockNotSupportedException.class, () -> warehouseService.increment(brahma.getId(), NORTH, 1));
+        assertThat(warehouseService.locations(brahma.getId()).getTotal(), equalTo(10L));
+    }
+
+    @Test
+    void whenTheBeerOrWarehouseIsUnknownThenNotFoundIsThrown() {
+        assertThrows(WarehouseNotFoundException.class, () -> warehouseService.increment(brahma.getId(), "east", 1));
+        assertThrows(BeerNotFoundException.class, () -> warehouseService.increment(brahma.getId() + 1000, NORTH, 1));
+        assertThrows(BeerNotFoundException.class, () -> warehouseService.decrement(brahma.getId() + 1000, NORTH, 1));
+        assertThrows(BeerNotFoundException.class, () -> warehouseService.locations(brahma.getId() + 1000));
+    }
+
+    @Test
+    void whenAWarehouseCodeIsRegisteredTwiceThenAnExceptionIsThrown() {
+        assertThrows(WarehouseAlreadyRegisteredException.class,
+                () -> warehouseService.create(WarehouseDTO.builder().code(NORTH).name("Another north").build()));
+        assertThat(warehouseService.listAll().stream().map(WarehouseDTO::getCode).filter(NORTH::equals).count(), equalTo(1L));
+    }
+
+    @Test
+    void whenTheBeerIsDeletedThenItsWarehouseStockIsDeleted() throws Exception {
+        warehouseService.increment(brahma.getId(), NORTH, 5);
+
+        beerService.deleteById(brahma.getId());
+
+        assertThat(stockRepository.findByBeerId(brahma.getId()), empty());
+        assertThat(stockView.quantities(brahma.getId()).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    void whenTheViewIsReloadedThenItMatchesTheRows() throws Exception {
+        warehouseService.increment(brahma.getId(), NORTH, 7);
+        warehouseService.increment(brahma.getId(), SOUTH, 9);
+
+        stockView.load();
+
+        assertThat(warehouseService.locations(brahma.getId()).getWarehouses(),
+                contains(new WarehouseStockDTO(NORTH, 7), new WarehouseStockDTO(SOUTH, 9)));
+    }
+
+    @Test
+    void whenWarehousesAreAdjustedConcurrentlyThenNoUpdateIsLost() throws Exception {
+        BeerDTO skol = beerService.create(BeerDTOBuilder.builder().id(null).name("Skol").quantity(0).max(500).build().toBeerDTO());
+        int threads = 8;
+        int operations = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                String warehouse = thread % 2 == 0 ? NORTH : SOUTH;
+                tasks.add(() -> {
+                    for (int i = 0; i < operations; i++) {
+                        warehouseService.increment(skol.getId(), warehouse, 2);
+                        warehouseService.decrement(skol.getId(), warehouse, 1);
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) future.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Integer> rows = stockRepository.findByBeerId(skol.getId()).stream()
+                .map(WarehouseStock::getQuantity)
+                .collect(Collectors.toList());
+        assertThat(rows, contains(threads / 2 * operations, threads / 2 * operations));
+        assertThat(warehouseService.locations(skol.getId()).getTotal(), equalTo((long) threads * operations));
+        warehouseService.rollUp();
+        assertThat(beerRepository.findById(skol.getId()).orElseThrow().getLocated(), equalTo(threads * operations));
+    }
+}